@@ -1,9 +1,17 @@
 package com.hitendra.ecommerce.config;
 
+import java.util.List;
+
 public class AppConstants {
     public static final String PAGE_NUMBER = "0";
     public static final String PAGE_SIZE = "50";
     public static final String SORT_CATEGORIES_BY = "categoryId";
     public static final String SORT_PRODUCTS_BY = "productId";
+    public static final String SORT_BY_RELEVANCE = "relevance";
     public static final String SORT_DIRECTION = "asc";
+    // Keyset seeks compare with < and >, which never match NULL, so cursor pages only sort on NOT NULL columns
+    public static final List<String> CURSOR_SORT_PRODUCTS_BY = List.of(SORT_PRODUCTS_BY, "productName", "description", "price", "discount", "specialPrice");
+    public static final List<String> CURSOR_SORT_CATEGORIES_BY = List.of(SORT_CATEGORIES_BY, "categoryName");
+    public static final String SUGGESTION_LIMIT = "10";
+    public static final int MAX_SUGGESTION_LIMIT = 50;
 }
@@ -0,0 +1,46 @@
+package com.hitendra.ecommerce.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hitendra.ecommerce.payload.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String CATEGORY_PRODUCTS_CACHE = "categoryProducts";
+
+    // Evictions inside a transaction wait for its commit, otherwise a read between the evict and the commit
+    // would cache the old rows again for a whole TTL
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${spring.app.cache.productsTtlSeconds:60}") long productsTtlSeconds,
+            @Value("${spring.app.cache.categoryProductsTtlSeconds:300}") long categoryProductsTtlSeconds,
+            @Value("${spring.app.cache.maxCachedProducts:20000}") long maxCachedProducts
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCTS_CACHE, productPageCache(productsTtlSeconds, maxCachedProducts));
+        cacheManager.registerCustomCache(CATEGORY_PRODUCTS_CACHE, productPageCache(categoryProductsTtlSeconds, maxCachedProducts));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Pages are weighed by their product count so a few huge pageSize requests can't blow the heap
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> productPageCache(long ttlSeconds, long maxProducts) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumWeight(maxProducts)
+                .weigher((Object key, Object value) -> ((ProductResponse) value).getContent().size() + 1)
+                .recordStats()
+                .build();
+    }
+}
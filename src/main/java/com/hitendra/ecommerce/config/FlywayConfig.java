@@ -0,0 +1,18 @@
+package com.hitendra.ecommerce.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    // Databases Hibernate already created get marked as V1 and only receive the later migrations
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .baselineDescription("Schema created by Hibernate auto-DDL");
+    }
+}
@@ -0,0 +1,87 @@
+package com.hitendra.ecommerce.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class HibernateConfig {
+
+    public static final String CATEGORY_REGION = "category";
+    public static final String ROLE_REGION = "role";
+    public static final String ROLE_BY_NAME_REGION = "role-by-name";
+
+    // Sequence ids let Hibernate group inserts into JDBC batches; explicit spring.jpa.properties still win
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(@Value("${spring.app.jpa.batchSize:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
+    // Caches are private to this node, the TTL bounds how long a category changed on another node can be served
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceDataCacheManager(
+            @Value("${spring.app.jpa.referenceDataTtlSeconds:600}") long ttlSeconds,
+            @Value("${spring.app.jpa.referenceDataMaxEntries:10000}") long maxEntries
+    ) {
+        // A manager of its own per context, so two contexts in one JVM never share entries
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), HibernateConfig.class.getClassLoader());
+
+        cacheManager.createCache(CATEGORY_REGION, region(ttlSeconds, maxEntries));
+        cacheManager.createCache(ROLE_REGION, region(ttlSeconds, 100));
+        cacheManager.createCache(ROLE_BY_NAME_REGION, region(ttlSeconds, 100));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(ttlSeconds, maxEntries));
+        // Query results are checked against these table timestamps, they must outlive every cached result
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(0, maxEntries));
+        return cacheManager;
+    }
+
+    // Statistics feed Boot's Hibernate metrics, including hibernate.second.level.cache.* hits, misses and puts per region
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(
+            @Value("${spring.app.jpa.secondLevelCache:true}") boolean enabled,
+            @Value("${spring.app.jpa.statistics:true}") boolean statistics,
+            CacheManager referenceDataCacheManager
+    ) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, statistics);
+            if(!enabled)
+                return;
+
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent(ConfigSettings.CACHE_MANAGER, referenceDataCacheManager);
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+
+    // Entries are already disassembled by Hibernate, no need for a second copy on the way in and out
+    private static CaffeineConfiguration<Object, Object> region(long ttlSeconds, long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if(ttlSeconds > 0)
+            configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        return configuration;
+    }
+}
@@ -2,6 +2,7 @@ package com.hitendra.ecommerce.controller;
 
 import com.hitendra.ecommerce.model.Cart;
 import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.payload.CartLineUpdateDTO;
 import com.hitendra.ecommerce.service.CartService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +41,9 @@ public class CartController {
         return new ResponseEntity<>(cartService.getUserCart(), HttpStatus.FOUND);
     }
 
+    // With spring.app.cart.coalesce.enabled the returned cart already shows the change but the write happens up to
+    // one window later. Stock is checked when the click is accepted; if it runs out before the write, that change
+    // is dropped and the next read of the cart shows the stored quantity
     @PutMapping("cart/products/{productId}/quantity/{operation}")
     public ResponseEntity<CartDTO> updateUserCart(
             @PathVariable Long productId,
@@ -52,6 +56,12 @@ public class CartController {
         return new ResponseEntity<>(cartDTO, HttpStatus.OK);
     }
 
+    //Setting absolute quantities for several lines at once, quantity 0 removes the line
+    @PutMapping("carts/user/cart/products")
+    public ResponseEntity<CartDTO> updateUserCartLines(@RequestBody List<CartLineUpdateDTO> lines) {
+        return new ResponseEntity<>(cartService.updateUserCartLines(lines), HttpStatus.OK);
+    }
+
     @DeleteMapping("/carts/{cartId}/product/{productId}")
     public ResponseEntity<String> deleteProductFromCart(
         @PathVariable("cartId") Long cartId,
@@ -1,6 +1,7 @@
 package com.hitendra.ecommerce.controller;
 
 import com.hitendra.ecommerce.config.AppConstants;
+import com.hitendra.ecommerce.payload.CategoryCursorResponse;
 import com.hitendra.ecommerce.payload.CategoryDTO;
 import com.hitendra.ecommerce.payload.CategoryResponse;
 import com.hitendra.ecommerce.service.CategoryService;
@@ -49,6 +50,34 @@ public class CategoryController {
             );
     }
 
+    @GetMapping("public/categories/seek")
+    public ResponseEntity<CategoryCursorResponse> getAllCategoriesByCursor(
+            @RequestParam(
+                    name = "cursor",
+                    required = false
+            ) String cursor,
+            @RequestParam(
+                    name = "pageSize",
+                    defaultValue = AppConstants.PAGE_SIZE,
+                    required = false
+            ) Integer pageSize,
+            @RequestParam(
+                    name = "sortBy",
+                    defaultValue = AppConstants.SORT_CATEGORIES_BY,
+                    required = false
+            ) String sortBy,
+            @RequestParam(
+                    name = "sortOrder",
+                    defaultValue = AppConstants.SORT_DIRECTION,
+                    required = false
+            ) String sortOrder
+    ) {
+        return new ResponseEntity<>(
+                categoryService.getAllCategoriesByCursor(cursor, pageSize, sortBy, sortOrder),
+                HttpStatus.OK
+        );
+    }
+
     @PostMapping("public/categories")
     public ResponseEntity<CategoryDTO> createCategory(
             @Valid @RequestBody CategoryDTO categoryDTO
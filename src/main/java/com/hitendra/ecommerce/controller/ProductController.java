@@ -2,25 +2,34 @@ package com.hitendra.ecommerce.controller;
 
 import com.hitendra.ecommerce.config.AppConstants;
 import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductCursorResponse;
 import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.payload.ProductImportReport;
 import com.hitendra.ecommerce.payload.ProductResponse;
+import com.hitendra.ecommerce.payload.SuggestionDTO;
+import com.hitendra.ecommerce.service.ProductImportService;
 import com.hitendra.ecommerce.service.ProductService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
     }
 
     @GetMapping("public/products")
@@ -52,6 +61,34 @@ public class ProductController {
         );
     }
 
+    @GetMapping("public/products/seek")
+    public ResponseEntity<ProductCursorResponse> getAllProductsByCursor(
+            @RequestParam(
+                    name = "cursor",
+                    required = false
+            ) String cursor,
+            @RequestParam(
+                    name = "pageSize",
+                    defaultValue = AppConstants.PAGE_SIZE,
+                    required = false
+            ) Integer pageSize,
+            @RequestParam(
+                    name = "sortBy",
+                    defaultValue = AppConstants.SORT_PRODUCTS_BY,
+                    required = false
+            ) String sortBy,
+            @RequestParam(
+                    name = "sortOrder",
+                    defaultValue = AppConstants.SORT_DIRECTION,
+                    required = false
+            ) String sortOrder
+    ) {
+        return new ResponseEntity<>(
+                productService.getAllProductsByCursor(cursor, pageSize, sortBy, sortOrder),
+                HttpStatus.OK
+        );
+    }
+
     @PostMapping("admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProduct(
             @Valid @RequestBody ProductDTO productDTO,
@@ -60,6 +97,15 @@ public class ProductController {
         return new ResponseEntity<>(productService.addProduct(productDTO, categoryId) ,HttpStatus.CREATED);
     }
 
+    //Streams a CSV upload (header row required) or NDJSON, one product per line, into batched inserts
+    @PostMapping(value = "admin/products/import", consumes = {ProductImportService.CSV, ProductImportService.NDJSON})
+    public ResponseEntity<ProductImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        return new ResponseEntity<>(productImportService.importProducts(body, contentType), HttpStatus.OK);
+    }
+
     @GetMapping("public/categories/{categoryId}/products")
     public ResponseEntity<ProductResponse> getProductByCategoryId(
             @PathVariable("categoryId") Long categoryId,
@@ -91,6 +137,35 @@ public class ProductController {
         );
     }
 
+    @GetMapping("public/categories/{categoryId}/products/seek")
+    public ResponseEntity<ProductCursorResponse> getProductByCategoryIdByCursor(
+            @PathVariable("categoryId") Long categoryId,
+            @RequestParam(
+                    name = "cursor",
+                    required = false
+            ) String cursor,
+            @RequestParam(
+                    name = "pageSize",
+                    defaultValue = AppConstants.PAGE_SIZE,
+                    required = false
+            ) Integer pageSize,
+            @RequestParam(
+                    name = "sortBy",
+                    defaultValue = AppConstants.SORT_PRODUCTS_BY,
+                    required = false
+            ) String sortBy,
+            @RequestParam(
+                    name = "sortOrder",
+                    defaultValue = AppConstants.SORT_DIRECTION,
+                    required = false
+            ) String sortOrder
+    ) {
+        return new ResponseEntity<>(
+                productService.getProductsByCategoryByCursor(categoryId, cursor, pageSize, sortBy, sortOrder),
+                HttpStatus.OK
+        );
+    }
+
     @GetMapping("public/products/keyword/{keyword}")
     public ResponseEntity<ProductResponse> getProductsByKeyword(
             @PathVariable("keyword") String keyword,
@@ -106,7 +181,7 @@ public class ProductController {
             ) Integer pageSize,
             @RequestParam(
                     name = "sortBy",
-                    defaultValue = AppConstants.SORT_PRODUCTS_BY,
+                    defaultValue = AppConstants.SORT_BY_RELEVANCE,
                     required = false
             ) String sortBy,
             @RequestParam(
@@ -121,6 +196,18 @@ public class ProductController {
         );
     }
 
+    @GetMapping("public/products/suggest")
+    public ResponseEntity<List<SuggestionDTO>> getSuggestions(
+            @RequestParam("query") String query,
+            @RequestParam(
+                    name = "limit",
+                    defaultValue = AppConstants.SUGGESTION_LIMIT,
+                    required = false
+            ) Integer limit
+    ) {
+        return new ResponseEntity<>(productService.getSuggestions(query, limit), HttpStatus.OK);
+    }
+
     @PutMapping("admin/products/{productId}")
     public ResponseEntity<ProductDTO> updateProduct(
             @PathVariable("productId") Long productId,
@@ -0,0 +1,18 @@
+package com.hitendra.ecommerce.exceptions;
+
+import java.util.List;
+
+public class InsufficientStockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds, List<String> productNames) {
+        super("Not enough stock left for: " + String.join(", ", productNames));
+        this.productIds = productIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
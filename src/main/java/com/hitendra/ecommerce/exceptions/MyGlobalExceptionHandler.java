@@ -1,6 +1,9 @@
 package com.hitendra.ecommerce.exceptions;
 
 import com.hitendra.ecommerce.payload.APIResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -9,11 +12,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 @RestControllerAdvice
 public class MyGlobalExceptionHandler  {
 
+    private static final Set<String> NAME_CONSTRAINTS = Set.of("uk_products_category_name", "uk_category_name");
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> ArgumentNotValidException(MethodArgumentNotValidException e) {
         Map<String, String> response = new HashMap<>();
@@ -39,4 +46,43 @@ public class MyGlobalExceptionHandler  {
         return new ResponseEntity<>( apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    // A unique name constraint caught a duplicate that slipped past the existence check. Any other
+    // violation (foreign key, not null) is a bug, not a conflict, and goes on to the default 500
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<APIResponse> myDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if(!isDuplicateName(e))
+            throw e;
+        APIResponse apiResponse = new APIResponse("Resource already exists", false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<APIResponse> myInsufficientStockException(InsufficientStockException e) {
+        String message = e.getMessage();
+        APIResponse apiResponse = new APIResponse(message, false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    // Password hashing is saturated, the client backs off instead of tying up a request thread
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<APIResponse> myPasswordHashingBusyException(PasswordHashingBusyException e) {
+        String message = e.getMessage();
+        APIResponse apiResponse = new APIResponse(message, false);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
+    private static boolean isDuplicateName(DataIntegrityViolationException e) {
+        for(Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if(cause instanceof ConstraintViolationException violation) {
+                // H2 reports the name qualified and upper-cased, PostgreSQL as declared
+                String name = violation.getConstraintName();
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        && name != null
+                        && NAME_CONSTRAINTS.stream().anyMatch(name.toLowerCase(Locale.ROOT)::contains);
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,159 @@
+package com.hitendra.ecommerce.inventory;
+
+import com.hitendra.ecommerce.utils.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional soft reservations for items sitting in carts. They only lower what availability checks report,
+// checkout still reserves real stock. Holds live in memory and expire through a single timing wheel.
+@Component
+public class CartHolds {
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final TimingWheel wheel;
+
+    // cartId -> productId -> hold, every change to one cart runs inside compute() on its entry
+    private final Map<Long, Map<Long, Hold>> holdsByCart = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> heldByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong activeHolds = new AtomicLong();
+    private final Counter expirations;
+
+    public CartHolds(
+            @Value("${spring.app.cart.holds.enabled:false}") boolean enabled,
+            @Value("${spring.app.cart.holds.ttlSeconds:900}") long ttlSeconds,
+            @Value("${spring.app.cart.holds.tickMs:1000}") long tickMs,
+            @Value("${spring.app.cart.holds.wheelSize:1024}") int wheelSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.wheel = enabled ? new TimingWheel("cart-holds", tickMs, TimeUnit.MILLISECONDS, wheelSize) : null;
+
+        Gauge.builder("cart.holds.active", activeHolds, AtomicLong::get)
+                .register(meterRegistry);
+        this.expirations = Counter.builder("cart.holds.expired")
+                .register(meterRegistry);
+        if(enabled) {
+            TimeGauge.builder("cart.holds.wheel.lag", wheel, TimeUnit.MILLISECONDS, w -> w.lastTickLag(TimeUnit.MILLISECONDS))
+                    .register(meterRegistry);
+        }
+    }
+
+    //Creating or replacing the hold of one cart line, the expiry window restarts
+    public void hold(Long cartId, Long productId, int quantity) {
+        if(!enabled)
+            return;
+
+        holdsByCart.compute(cartId, (id, holds) -> {
+            if(holds == null)
+                holds = new ConcurrentHashMap<>();
+
+            Hold hold = new Hold(cartId, productId, quantity);
+            Hold previous = holds.put(productId, hold);
+            if(previous != null)
+                forget(previous);
+            heldByProduct.compute(productId, (key, held) -> {
+                AtomicLong total = held != null ? held : new AtomicLong();
+                total.addAndGet(quantity);
+                return total;
+            });
+            activeHolds.incrementAndGet();
+            hold.timeout = wheel.schedule(() -> expire(hold), ttlMs, TimeUnit.MILLISECONDS);
+            return holds;
+        });
+    }
+
+    public void release(Long cartId, Long productId) {
+        if(!enabled)
+            return;
+
+        holdsByCart.computeIfPresent(cartId, (id, holds) -> {
+            Hold hold = holds.remove(productId);
+            if(hold != null)
+                forget(hold);
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    public void releaseCart(Long cartId) {
+        if(!enabled)
+            return;
+
+        holdsByCart.computeIfPresent(cartId, (id, holds) -> {
+            holds.values().forEach(this::forget);
+            return null;
+        });
+    }
+
+    //Dropping the holds every cart has on a product that no longer exists
+    public void releaseProduct(Long productId) {
+        if(!enabled || !heldByProduct.containsKey(productId))
+            return;
+
+        for(Long cartId : holdsByCart.keySet())
+            release(cartId, productId);
+    }
+
+    //Units of a product held by every cart except the given one
+    public int heldByOthers(Long cartId, Long productId) {
+        if(!enabled)
+            return 0;
+
+        AtomicLong held = heldByProduct.get(productId);
+        if(held == null)
+            return 0;
+
+        Map<Long, Hold> ownHolds = holdsByCart.get(cartId);
+        Hold own = ownHolds != null ? ownHolds.get(productId) : null;
+        return (int) Math.max(0, held.get() - (own != null ? own.quantity : 0));
+    }
+
+    @PreDestroy
+    public void close() {
+        if(wheel != null)
+            wheel.close();
+    }
+
+    private void expire(Hold hold) {
+        holdsByCart.computeIfPresent(hold.cartId, (id, holds) -> {
+            if(holds.remove(hold.productId, hold)) {
+                forget(hold);
+                expirations.increment();
+            }
+            return holds.isEmpty() ? null : holds;
+        });
+    }
+
+    private void forget(Hold hold) {
+        if(hold.timeout != null)
+            hold.timeout.cancel();
+        heldByProduct.computeIfPresent(hold.productId, (productId, held) ->
+                held.addAndGet(-hold.quantity) == 0 ? null : held
+        );
+        activeHolds.decrementAndGet();
+    }
+
+    private static final class Hold {
+        private final Long cartId;
+        private final Long productId;
+        private final int quantity;
+        private TimingWheel.Timeout timeout;
+
+        private Hold(Long cartId, Long productId, int quantity) {
+            this.cartId = cartId;
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
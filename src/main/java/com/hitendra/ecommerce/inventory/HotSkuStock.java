@@ -0,0 +1,131 @@
+package com.hitendra.ecommerce.inventory;
+
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Opt-in flash sale mode: stock of the configured SKUs lives in memory and is written behind to products.quantity.
+// The in-memory counters are authoritative, so a hot SKU must only be served by a single instance.
+// A crash loses at most one flush interval of decrements.
+@Component
+public class HotSkuStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotSkuStock.class);
+
+    // What reserve returns when the SKU is short
+    public static final long SHORT = StripedStock.SHORT;
+
+    private final ProductStockRepository productStockRepository;
+    private final Set<Long> hotSkuIds;
+    private final int stripeCount;
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    public HotSkuStock(
+            ProductStockRepository productStockRepository,
+            @Value("${spring.app.inventory.hotSkuIds:}") String hotSkuIds,
+            @Value("${spring.app.inventory.stripes:16}") int stripeCount
+    ) {
+        this.productStockRepository = productStockRepository;
+        this.hotSkuIds = Arrays.stream(hotSkuIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.stripeCount = stripeCount;
+    }
+
+    //Rebuilding the counters from the database, until then hot SKUs go through the row-lock path
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if(hotSkuIds.isEmpty())
+            return;
+
+        productStockRepository.findQuantities(hotSkuIds)
+                .forEach((productId, quantity) -> track(productId, quantity));
+        logger.info("Serving stock of {} hot SKUs from memory", stocks.size());
+    }
+
+    public void track(Long productId, long quantity) {
+        stocks.put(productId, new StripedStock(stripeCount, quantity));
+    }
+
+    public boolean isHot(Long productId) {
+        return stocks.containsKey(productId);
+    }
+
+    //Returns the stock epoch the units came from, hand it back to release. SHORT when the SKU is short
+    public long reserve(Long productId, int quantity) {
+        return stocks.get(productId).reserve(quantity);
+    }
+
+    //A no-op once an overwrite replaced the epoch the units were reserved from
+    public void release(Long productId, long epoch, int quantity) {
+        stocks.get(productId).release(epoch, quantity);
+    }
+
+    public long available(Long productId) {
+        return stocks.get(productId).available();
+    }
+
+    //Keeping flushes of one SKU away while an admin replaces its stock, until resumeFlushes
+    public void holdFlushes(Long productId) {
+        stocks.get(productId).writeLock().lock();
+    }
+
+    public void resumeFlushes(Long productId) {
+        stocks.get(productId).writeLock().unlock();
+    }
+
+    //Only while holding the SKU's flushes, the pending delta is dropped with the old stock level.
+    //Reservations keep running and land either wholly before or wholly after it
+    public void overwrite(Long productId, long quantity) {
+        stocks.get(productId).overwrite(quantity);
+    }
+
+    // Write-behind: the net reserved units of every hot SKU go to the database in one batch.
+    // Each SKU stays locked from drain to write so an admin overwrite can't land in between
+    @Scheduled(fixedDelayString = "${spring.app.inventory.flushIntervalMs:500}")
+    @PreDestroy
+    public void flush() {
+        if(stocks.isEmpty())
+            return;
+
+        // Always locked in id order, an overwrite only ever holds one SKU
+        Map<Long, StripedStock> locked = new TreeMap<>(stocks);
+        locked.values().forEach(stock -> stock.writeLock().lock());
+        try {
+            List<StockLine> deltas = new ArrayList<>();
+            locked.forEach((productId, stock) -> {
+                long delta = stock.drainPendingDelta();
+                if(delta != 0)
+                    deltas.add(new StockLine(productId, (int) delta));
+            });
+            if(deltas.isEmpty())
+                return;
+
+            try {
+                productStockRepository.applyDeltas(deltas);
+            } catch (RuntimeException e) {
+                deltas.forEach(delta -> locked.get(delta.productId()).restorePendingDelta(delta.quantity()));
+                logger.error("Hot SKU stock flush failed, retrying on the next tick: {}", e.getMessage());
+            }
+        } finally {
+            locked.values().forEach(stock -> stock.writeLock().unlock());
+        }
+    }
+}
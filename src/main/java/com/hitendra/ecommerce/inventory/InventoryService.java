@@ -0,0 +1,113 @@
+package com.hitendra.ecommerce.inventory;
+
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Stock reservations as conditional decrements, row locks only and no read-check-write in Java.
+// SKUs flagged as hot are reserved against HotSkuStock's in-memory counters instead.
+@Service
+public class InventoryService {
+
+    private final ProductStockRepository productStockRepository;
+    private final HotSkuStock hotSkuStock;
+
+    public InventoryService(ProductStockRepository productStockRepository, HotSkuStock hotSkuStock) {
+        this.productStockRepository = productStockRepository;
+        this.hotSkuStock = hotSkuStock;
+    }
+
+    //Returns the lines that could not be reserved, the caller's transaction decides whether to roll back
+    public List<StockLine> reserve(List<StockLine> lines) {
+        List<StockLine> shortages = new ArrayList<>();
+        List<HotReservation> hotReserved = new ArrayList<>();
+        List<StockLine> rowLockLines = new ArrayList<>();
+
+        for(StockLine line : lines) {
+            if(!hotSkuStock.isHot(line.productId())) {
+                rowLockLines.add(line);
+                continue;
+            }
+            long epoch = hotSkuStock.reserve(line.productId(), line.quantity());
+            if(epoch == HotSkuStock.SHORT)
+                shortages.add(line);
+            else
+                hotReserved.add(new HotReservation(line, epoch));
+        }
+        releaseOnRollback(hotReserved);
+
+        if(rowLockLines.isEmpty())
+            return shortages;
+
+        // Same lock order for every checkout so two carts sharing SKUs can't deadlock
+        rowLockLines.sort(Comparator.comparing(StockLine::productId));
+
+        int[] updated = productStockRepository.decrementIfAvailable(rowLockLines);
+
+        for(int i = 0; i < rowLockLines.size(); i++) {
+            if(updated[i] == 0)
+                shortages.add(rowLockLines.get(i));
+        }
+        return shortages;
+    }
+
+    public int available(Product product) {
+        return hotSkuStock.isHot(product.getProductId())
+                ? (int) hotSkuStock.available(product.getProductId())
+                : product.getQuantity();
+    }
+
+    // Keeping the counters in step when an admin sets the stock level directly. Call it before the transaction
+    // writes the product row: flushes of the SKU wait until the transaction ends, then the counters take the
+    // new level on commit and stay untouched on rollback
+    public void stockOverwritten(Long productId, int quantity) {
+        if(!hotSkuStock.isHot(productId))
+            return;
+
+        hotSkuStock.holdFlushes(productId);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                hotSkuStock.overwrite(productId, quantity);
+            } finally {
+                hotSkuStock.resumeFlushes(productId);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if(status == STATUS_COMMITTED)
+                        hotSkuStock.overwrite(productId, quantity);
+                } finally {
+                    hotSkuStock.resumeFlushes(productId);
+                }
+            }
+        });
+    }
+
+    // In-memory reservations don't roll back with the database, give them back explicitly
+    private void releaseOnRollback(List<HotReservation> reserved) {
+        if(reserved.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status != STATUS_COMMITTED)
+                    reserved.forEach(reservation -> hotSkuStock.release(
+                            reservation.line().productId(), reservation.epoch(), reservation.line().quantity()));
+            }
+        });
+    }
+
+    private record HotReservation(StockLine line, long epoch) {
+    }
+}
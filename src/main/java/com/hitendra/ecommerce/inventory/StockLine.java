@@ -0,0 +1,4 @@
+package com.hitendra.ecommerce.inventory;
+
+public record StockLine(Long productId, int quantity) {
+}
@@ -0,0 +1,159 @@
+package com.hitendra.ecommerce.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Stock of one hot SKU split over CAS-only stripes, a reservation never takes a lock
+final class StripedStock {
+
+    static final long SHORT = -1;
+
+    // One stripe per 64 byte cache line so threads on different stripes don't false share
+    private static final int PADDING = 8;
+
+    private final int stripeCount;
+
+    // An overwrite swaps in a fresh generation instead of resetting the live one, so a reservation racing it
+    // lands wholly in the old generation, which is never read or flushed again
+    private volatile Generation generation;
+
+    // Held by a flush from drain to database write and by an admin overwrite until its transaction ends,
+    // reservations never take it
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    StripedStock(int stripeCount, long quantity) {
+        this.stripeCount = stripeCount;
+        this.generation = new Generation(0, stripeCount, quantity);
+    }
+
+    //Returns the epoch the units were taken from, SHORT when the SKU doesn't have them
+    long reserve(int quantity) {
+        while(true) {
+            Generation current = generation;
+            boolean reserved = current.reserve(quantity);
+            // Replaced mid-reservation, whatever it took went with the old stock, take it again from the new one
+            if(current == generation)
+                return reserved ? current.epoch : SHORT;
+        }
+    }
+
+    //Units reserved before an overwrite belong to the stock it replaced, giving them back would inflate the new level
+    void release(long epoch, int quantity) {
+        Generation current = generation;
+        if(current.epoch == epoch)
+            current.release(quantity);
+    }
+
+    long available() {
+        return generation.available();
+    }
+
+    ReentrantLock writeLock() {
+        return writeLock;
+    }
+
+    //Caller holds writeLock, so the generation can't change between a drain and its restore
+    long drainPendingDelta() {
+        return generation.pendingDelta.getAndSet(0);
+    }
+
+    void restorePendingDelta(long delta) {
+        generation.pendingDelta.addAndGet(delta);
+    }
+
+    //Replacing the stock outright, used when an admin edits the quantity. Caller holds writeLock
+    void overwrite(long quantity) {
+        generation = new Generation(generation.epoch + 1, stripeCount, quantity);
+    }
+
+    private static final class Generation {
+
+        private final long epoch;
+        private final AtomicLongArray stripes;
+        private final int stripeCount;
+
+        // Units reserved (minus units released) that products.quantity doesn't reflect yet
+        private final AtomicLong pendingDelta = new AtomicLong();
+
+        Generation(long epoch, int stripeCount, long quantity) {
+            this.epoch = epoch;
+            this.stripeCount = stripeCount;
+            this.stripes = new AtomicLongArray(stripeCount * PADDING);
+            fill(quantity);
+        }
+
+        boolean reserve(int quantity) {
+            int home = homeStripe();
+            if(tryTake(home, quantity)) {
+                pendingDelta.addAndGet(quantity);
+                return true;
+            }
+
+            // Home stripe ran dry, gather the rest from the others and give it back if the SKU is short
+            long taken = 0;
+            for(int i = 0; i < stripeCount && taken < quantity; i++)
+                taken += takeUpTo((home + i) % stripeCount, quantity - taken);
+
+            if(taken < quantity) {
+                add(home, taken);
+                return false;
+            }
+            pendingDelta.addAndGet(quantity);
+            return true;
+        }
+
+        void release(int quantity) {
+            add(homeStripe(), quantity);
+            pendingDelta.addAndGet(-quantity);
+        }
+
+        long available() {
+            long total = 0;
+            for(int i = 0; i < stripeCount; i++)
+                total += stripes.get(i * PADDING);
+            return total;
+        }
+
+        private void fill(long quantity) {
+            long share = quantity / stripeCount;
+            for(int i = 0; i < stripeCount; i++)
+                stripes.set(i * PADDING, share);
+            add(0, quantity - share * stripeCount);
+        }
+
+        private boolean tryTake(int stripe, int quantity) {
+            int index = stripe * PADDING;
+            long current;
+            do {
+                current = stripes.get(index);
+                if(current < quantity)
+                    return false;
+            } while(!stripes.compareAndSet(index, current, current - quantity));
+            return true;
+        }
+
+        private long takeUpTo(int stripe, long quantity) {
+            int index = stripe * PADDING;
+            long current;
+            long taken;
+            do {
+                current = stripes.get(index);
+                taken = Math.min(current, quantity);
+                if(taken <= 0)
+                    return 0;
+            } while(!stripes.compareAndSet(index, current, current - taken));
+            return taken;
+        }
+
+        private void add(int stripe, long quantity) {
+            if(quantity != 0)
+                stripes.addAndGet(stripe * PADDING, quantity);
+        }
+
+        private int homeStripe() {
+            return ThreadLocalRandom.current().nextInt(stripeCount);
+        }
+    }
+}
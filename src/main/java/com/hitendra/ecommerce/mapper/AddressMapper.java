@@ -0,0 +1,35 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.Address;
+import com.hitendra.ecommerce.payload.AddressDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AddressMapper {
+
+    public AddressDTO toDTO(Address address) {
+        if(address == null)
+            return null;
+
+        return new AddressDTO(
+                address.getAddressId(),
+                address.getStreet(),
+                address.getBuildingName(),
+                address.getCity(),
+                address.getState(),
+                address.getCountry(),
+                address.getPincode()
+        );
+    }
+
+    public Address toEntity(AddressDTO addressDTO) {
+        return new Address(
+                addressDTO.getStreet(),
+                addressDTO.getBuildingName(),
+                addressDTO.getCity(),
+                addressDTO.getState(),
+                addressDTO.getCountry(),
+                addressDTO.getPincode()
+        );
+    }
+}
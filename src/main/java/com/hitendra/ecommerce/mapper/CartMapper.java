@@ -0,0 +1,68 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.model.CartItem;
+import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.repository.CartLineView;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CartMapper {
+
+    private final ProductMapper productMapper;
+
+    public CartMapper(ProductMapper productMapper) {
+        this.productMapper = productMapper;
+    }
+
+    //Products carry the quantity held in the cart, not the stock level
+    public CartDTO toDTO(Cart cart) {
+        if(cart == null)
+            return null;
+
+        List<ProductDTO> products = new ArrayList<>(cart.getCartItems().size());
+        for(CartItem item : cart.getCartItems())
+            products.add(toProductDTO(item));
+
+        return new CartDTO(cart.getCardId(), cart.getTotalPrice(), products);
+    }
+
+    public ProductDTO toProductDTO(CartItem cartItem) {
+        ProductDTO productDTO = productMapper.toDTO(cartItem.getProduct());
+        productDTO.setQuantity(cartItem.getQuantity());
+        return productDTO;
+    }
+
+    //Folding projection rows back into carts, rows must be ordered by cart
+    public List<CartDTO> toDTOs(List<CartLineView> cartLines) {
+        Map<Long, CartDTO> carts = new LinkedHashMap<>();
+        for(CartLineView line : cartLines) {
+            CartDTO cartDTO = carts.computeIfAbsent(
+                    line.getCartId(),
+                    cartId -> new CartDTO(cartId, line.getTotalPrice(), new ArrayList<>())
+            );
+            if(line.getProductId() != null)
+                cartDTO.getProducts().add(toProductDTO(line));
+        }
+        return new ArrayList<>(carts.values());
+    }
+
+    private ProductDTO toProductDTO(CartLineView line) {
+        return new ProductDTO(
+                line.getProductId(),
+                line.getProductName(),
+                line.getImage(),
+                line.getDescription(),
+                line.getQuantity(),
+                line.getPrice(),
+                line.getDiscount(),
+                line.getSpecialPrice()
+        );
+    }
+}
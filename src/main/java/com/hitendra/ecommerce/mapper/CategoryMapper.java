@@ -0,0 +1,22 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.payload.CategoryDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        if(category == null)
+            return null;
+
+        return new CategoryDTO(category.getCategoryId(), category.getCategoryName());
+    }
+
+    public Category toEntity(CategoryDTO categoryDTO) {
+        Category category = new Category();
+        category.setCategoryName(categoryDTO.getCategoryName());
+        return category;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.Order;
+import com.hitendra.ecommerce.model.OrderItem;
+import com.hitendra.ecommerce.model.Payment;
+import com.hitendra.ecommerce.payload.OrderDTO;
+import com.hitendra.ecommerce.payload.OrderItemDTO;
+import com.hitendra.ecommerce.payload.PaymentDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderMapper {
+
+    private final ProductMapper productMapper;
+
+    public OrderMapper(ProductMapper productMapper) {
+        this.productMapper = productMapper;
+    }
+
+    public OrderDTO toDTO(Order order) {
+        if(order == null)
+            return null;
+
+        List<OrderItemDTO> orderItems = new ArrayList<>(order.getOrderItems().size());
+        for(OrderItem orderItem : order.getOrderItems())
+            orderItems.add(toDTO(orderItem));
+
+        return new OrderDTO(
+                order.getOrderId(),
+                order.getEmail(),
+                orderItems,
+                order.getOrderDate(),
+                toDTO(order.getPayment()),
+                order.getOrderPrice(),
+                order.getOrderStatus(),
+                order.getAddress() != null ? order.getAddress().getAddressId() : null
+        );
+    }
+
+    public OrderItemDTO toDTO(OrderItem orderItem) {
+        if(orderItem == null)
+            return null;
+
+        return new OrderItemDTO(
+                orderItem.getOrderItemId(),
+                productMapper.toDTO(orderItem.getProduct()),
+                orderItem.getQuantity(),
+                orderItem.getDiscount(),
+                orderItem.getOrderedProductPrice()
+        );
+    }
+
+    public PaymentDTO toDTO(Payment payment) {
+        if(payment == null)
+            return null;
+
+        return new PaymentDTO(
+                payment.getPaymentId(),
+                payment.getPaymentMethod(),
+                payment.getPgPaymentId(),
+                payment.getPgStatus(),
+                payment.getPgResponseMessage(),
+                payment.getPgName()
+        );
+    }
+}
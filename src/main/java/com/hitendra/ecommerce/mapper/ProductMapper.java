@@ -0,0 +1,38 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDTO(Product product) {
+        if(product == null)
+            return null;
+
+        return new ProductDTO(
+                product.getProductId(),
+                product.getProductName(),
+                product.getImage(),
+                product.getDescription(),
+                product.getQuantity(),
+                product.getPrice(),
+                product.getDiscount(),
+                product.getSpecialPrice()
+        );
+    }
+
+    //Ids are never copied from the request body, a new product must not overwrite an existing row
+    public Product toEntity(ProductDTO productDTO) {
+        Product product = new Product();
+        product.setProductName(productDTO.getProductName());
+        product.setImage(productDTO.getImage());
+        product.setDescription(productDTO.getDescription());
+        product.setQuantity(productDTO.getQuantity());
+        product.setPrice(productDTO.getPrice());
+        product.setDiscount(productDTO.getDiscount());
+        product.setSpecialPrice(productDTO.getSpecialPrice());
+        return product;
+    }
+}
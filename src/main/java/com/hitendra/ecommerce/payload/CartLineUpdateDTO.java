@@ -0,0 +1,13 @@
+package com.hitendra.ecommerce.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineUpdateDTO {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,17 @@
+package com.hitendra.ecommerce.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryCursorResponse {
+    private List<CategoryDTO> content;
+    private Integer pageSize;
+    private String nextCursor;
+    private boolean lastPage;
+}
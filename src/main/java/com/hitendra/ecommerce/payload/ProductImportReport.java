@@ -0,0 +1,22 @@
+package com.hitendra.ecommerce.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<ProductImportErrorDTO> errors = new ArrayList<>();
+    // Only the first errors are listed, failed still counts all of them
+    private boolean errorsTruncated;
+}
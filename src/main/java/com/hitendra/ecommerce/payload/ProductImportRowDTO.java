@@ -0,0 +1,18 @@
+package com.hitendra.ecommerce.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRowDTO {
+    private String productName;
+    private String description;
+    private String image;
+    private Integer quantity;
+    private Double price;
+    private Double discount;
+    private Long categoryId;
+}
@@ -15,4 +15,16 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Modifying
     @Query("delete from CartItem ci where ci.product.productId=?1 and ci.cart.cardId=?2")
     void deleteCartItemByProductIdAndCartId(Long productId, Long cartId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("update CartItem ci set ci.productPrice=?2, ci.discount=?3 where ci.product.productId=?1")
+    int repriceCartItems(Long productId, double productPrice, double discount);
+
+    @Modifying
+    @Query("delete from CartItem ci where ci.product.productId=?1")
+    int deleteAllByProductId(Long productId);
+
+    @Modifying
+    @Query("delete from CartItem ci where ci.cart.cardId=?1")
+    void deleteAllByCartId(Long cartId);
+}
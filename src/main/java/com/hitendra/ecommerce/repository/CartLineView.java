@@ -0,0 +1,24 @@
+package com.hitendra.ecommerce.repository;
+
+// One row per cart item, product columns are null for an empty cart
+public interface CartLineView {
+    Long getCartId();
+
+    Double getTotalPrice();
+
+    Long getProductId();
+
+    String getProductName();
+
+    String getImage();
+
+    String getDescription();
+
+    Integer getQuantity();
+
+    Double getPrice();
+
+    Double getDiscount();
+
+    Double getSpecialPrice();
+}
@@ -2,6 +2,7 @@ package com.hitendra.ecommerce.repository;
 
 import com.hitendra.ecommerce.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -13,9 +14,33 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c WHERE c.user.email = ?1")
     Cart findCartByEmail(String email);
 
-    @Query("select c from Cart c where c.user.email=?1 and c.cardId=?2")
-    Cart findCartByEmailAndCardId(String email,Long cardId);
+    @Query("select distinct c from Cart c left join fetch c.cartItems ci left join fetch ci.product where c.user.email = ?1")
+    Cart findCartWithItemsByEmail(String email);
 
-    @Query("select c from Cart c join fetch c.cartItems ci join fetch ci.product p where p.productId = ?1")
-    List<Cart> findCartByProductId(Long productId);
+    @Modifying
+    @Query("update Cart c set c.totalPrice = c.totalPrice + " +
+            "(select sum(ci.quantity * (?2 - ci.productPrice)) from CartItem ci where ci.cart = c and ci.product.productId = ?1) " +
+            "where exists (select 1 from CartItem ci where ci.cart = c and ci.product.productId = ?1)")
+    int repriceCartTotals(Long productId, double productPrice);
+
+    @Modifying
+    @Query("update Cart c set c.totalPrice = c.totalPrice - " +
+            "(select sum(ci.quantity * ci.productPrice) from CartItem ci where ci.cart = c and ci.product.productId = ?1) " +
+            "where exists (select 1 from CartItem ci where ci.cart = c and ci.product.productId = ?1)")
+    int deductProductFromCartTotals(Long productId);
+
+    //Cart, items and product summaries in a single statement, without touching the entity graph
+    @Query("select c.cardId as cartId, c.totalPrice as totalPrice, p.productId as productId, " +
+            "p.productName as productName, p.image as image, p.description as description, " +
+            "ci.quantity as quantity, p.price as price, p.discount as discount, p.specialPrice as specialPrice " +
+            "from Cart c left join c.cartItems ci left join ci.product p " +
+            "where c.user.email = ?1 order by ci.cartItemId")
+    List<CartLineView> findCartLinesByEmail(String email);
+
+    @Query("select c.cardId as cartId, c.totalPrice as totalPrice, p.productId as productId, " +
+            "p.productName as productName, p.image as image, p.description as description, " +
+            "ci.quantity as quantity, p.price as price, p.discount as discount, p.specialPrice as specialPrice " +
+            "from Cart c left join c.cartItems ci left join ci.product p " +
+            "order by c.cardId, ci.cartItemId")
+    List<CartLineView> findAllCartLines();
 }
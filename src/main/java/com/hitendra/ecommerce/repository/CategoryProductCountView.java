@@ -0,0 +1,9 @@
+package com.hitendra.ecommerce.repository;
+
+public interface CategoryProductCountView {
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+}
@@ -2,9 +2,20 @@ package com.hitendra.ecommerce.repository;
 
 import com.hitendra.ecommerce.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Category findCategoryByCategoryName(String categoryName);
+public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
+    // Existence checks only, backed by the unique index on category_name
+    boolean existsByCategoryName(String categoryName);
+
+    boolean existsByCategoryNameAndCategoryIdNot(String categoryName, Long categoryId);
+
+    @Query("select c.categoryId as categoryId, c.categoryName as categoryName, count(p) as productCount " +
+            "from Category c left join c.products p group by c.categoryId, c.categoryName")
+    List<CategoryProductCountView> findAllWithProductCount();
 }
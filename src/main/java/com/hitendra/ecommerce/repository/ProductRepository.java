@@ -1,18 +1,44 @@
 package com.hitendra.ecommerce.repository;
 
-import com.hitendra.ecommerce.model.Category;
 import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    // Catalog reads select the DTO columns only, no associations are loaded
+    String PRODUCT_DTO_SELECT = "select new com.hitendra.ecommerce.payload.ProductDTO(" +
+            "p.productId, p.productName, p.image, p.description, p.quantity, p.price, p.discount, p.specialPrice) " +
+            "from Product p";
+
+    @Query(value = PRODUCT_DTO_SELECT, countQuery = "select count(p) from Product p")
+    Page<ProductDTO> findProductPage(Pageable pageable);
+
+    @Query(
+            value = PRODUCT_DTO_SELECT + " where p.category.categoryId = ?1",
+            countQuery = "select count(p) from Product p where p.category.categoryId = ?1"
+    )
+    Page<ProductDTO> findProductPageByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query(PRODUCT_DTO_SELECT + " where p.productId in ?1")
+    List<ProductDTO> findProductDTOsByProductIdIn(Collection<Long> productIds);
 
-    Page<Product> getProductsByCategory(Category category, Pageable pageable);
+    // Existence check only, backed by the unique (category_id, product_name) index
+    boolean existsByCategory_CategoryIdAndProductName(Long categoryId, String productName);
 
-    Page<Product> getProductsByProductNameLikeIgnoreCase(String productName, Pageable pageable);
+    @Query("select p.productName from Product p where p.category.categoryId = ?1")
+    List<String> findProductNamesByCategoryId(Long categoryId);
 
-    Product getProductsByProductName(String productName);
+    @Query("select p.productId as productId, p.productName as productName, p.description as description, "
+            + "p.image as image, p.price as price, p.discount as discount, p.specialPrice as specialPrice from Product p")
+    List<ProductTextView> findAllProductText();
 }
@@ -0,0 +1,64 @@
+package com.hitendra.ecommerce.repository;
+
+import com.hitendra.ecommerce.inventory.StockLine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ProductStockRepository {
+
+    // The row is only touched when enough stock remains, so concurrent writers can never drive it negative
+    private static final String DECREMENT_IF_AVAILABLE =
+            "update products set quantity = quantity - ? where product_id = ? and quantity >= ?";
+
+    private static final String APPLY_DELTA =
+            "update products set quantity = quantity - ? where product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    //Update count per line, 0 means the line was short
+    public int[] decrementIfAvailable(List<StockLine> lines) {
+        int[][] counts = jdbcTemplate.batchUpdate(DECREMENT_IF_AVAILABLE, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.quantity());
+            ps.setLong(2, line.productId());
+            ps.setInt(3, line.quantity());
+        });
+        return flatten(counts);
+    }
+
+    //Unconditional, the hot SKU counters already decided every reservation behind these deltas
+    public void applyDeltas(List<StockLine> deltas) {
+        jdbcTemplate.batchUpdate(APPLY_DELTA, deltas, deltas.size(), (ps, delta) -> {
+            ps.setInt(1, delta.quantity());
+            ps.setLong(2, delta.productId());
+        });
+    }
+
+    public Map<Long, Integer> findQuantities(Collection<Long> productIds) {
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        Map<Long, Integer> quantities = new HashMap<>();
+        namedJdbcTemplate.query(
+                "select product_id, quantity from products where product_id in (:productIds)",
+                Map.of("productIds", productIds),
+                rs -> {
+                    quantities.put(rs.getLong("product_id"), rs.getInt("quantity"));
+                }
+        );
+        return quantities;
+    }
+
+    private static int[] flatten(int[][] counts) {
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+}
@@ -0,0 +1,17 @@
+package com.hitendra.ecommerce.repository;
+
+public interface ProductTextView {
+    Long getProductId();
+
+    String getProductName();
+
+    String getDescription();
+
+    String getImage();
+
+    double getPrice();
+
+    double getDiscount();
+
+    double getSpecialPrice();
+}
@@ -1,11 +1,20 @@
 package com.hitendra.ecommerce.repository;
 
+import com.hitendra.ecommerce.config.HibernateConfig;
 import com.hitendra.ecommerce.model.AppRole;
 import com.hitendra.ecommerce.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Runs on every sign-up, the result set is cached and dropped whenever the roles table is written
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateConfig.ROLE_BY_NAME_REGION)
+    })
     Optional<Role> findByRoleName(AppRole roleName);
 }
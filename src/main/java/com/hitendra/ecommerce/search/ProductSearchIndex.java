@@ -0,0 +1,184 @@
+package com.hitendra.ecommerce.search;
+
+import com.hitendra.ecommerce.config.AppConstants;
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.repository.ProductTextView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// In-memory inverted index over product name and description, plus the fields search results can be sorted by.
+// Readers are lock free, writers are serialized so a product is never half re-indexed by two writers.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+
+    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+
+    // term -> (productId -> term weight within that product)
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> productTerms = new ConcurrentHashMap<>();
+    private final Map<Long, SortKeys> productSortKeys = new ConcurrentHashMap<>();
+
+    private record SortKeys(String productName, String image, String description, double price, double discount,
+                            double specialPrice) {
+    }
+
+    // Every ProductDTO field except quantity, which orders move without re-indexing, so it's read at sort time
+    private static final Map<String, Comparator<SortKeys>> SORTABLE_FIELDS = Map.of(
+            "productName", Comparator.comparing(SortKeys::productName, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "image", Comparator.comparing(SortKeys::image, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "description", Comparator.comparing(SortKeys::description, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "price", Comparator.comparingDouble(SortKeys::price),
+            "discount", Comparator.comparingDouble(SortKeys::discount),
+            "specialPrice", Comparator.comparingDouble(SortKeys::specialPrice)
+    );
+
+    private static final String QUANTITY = "quantity";
+
+    public ProductSearchIndex(ProductRepository productRepository, ProductStockRepository productStockRepository) {
+        this.productRepository = productRepository;
+        this.productStockRepository = productStockRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        postings.clear();
+        productTerms.clear();
+        productSortKeys.clear();
+        List<ProductTextView> products = productRepository.findAllProductText();
+        products.forEach(product -> index(product.getProductId(), product.getProductName(), product.getDescription(),
+                new SortKeys(product.getProductName(), product.getImage(), product.getDescription(),
+                        product.getPrice(), product.getDiscount(), product.getSpecialPrice())));
+        logger.info("Indexed {} products, {} terms", productTerms.size(), postings.size());
+    }
+
+    public void index(Product product) {
+        index(product.getProductId(), product.getProductName(), product.getDescription(),
+                new SortKeys(product.getProductName(), product.getImage(), product.getDescription(),
+                        product.getPrice(), product.getDiscount(), product.getSpecialPrice()));
+    }
+
+    private synchronized void index(Long productId, String productName, String description, SortKeys sortKeys) {
+        remove(productId);
+
+        Map<String, Float> weights = new HashMap<>();
+        tokenize(productName).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(productId, weight)
+        );
+        productTerms.put(productId, weights.keySet());
+        productSortKeys.put(productId, sortKeys);
+    }
+
+    public synchronized void remove(Long productId) {
+        productSortKeys.remove(productId);
+        Set<String> terms = productTerms.remove(productId);
+        if(terms == null)
+            return;
+        terms.forEach(term -> postings.computeIfPresent(term, (t, products) -> {
+            products.remove(productId);
+            return products.isEmpty() ? null : products;
+        }));
+    }
+
+    // Every query term must match a product term exactly or as a prefix (AND semantics).
+    // Returns product ids ordered by relevance, best first, ties broken by id.
+    public List<Long> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if(terms.isEmpty())
+            return List.of();
+
+        Map<Long, Float> scores = null;
+        for(String term : terms) {
+            Map<Long, Float> termScores = new HashMap<>();
+            postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((indexedTerm, products) -> {
+                float boost = indexedTerm.equals(term) ? 1.0f : PREFIX_MATCH_WEIGHT;
+                products.forEach((productId, weight) -> termScores.merge(productId, weight * boost, Math::max));
+            });
+            if(termScores.isEmpty())
+                return List.of();
+
+            float idf = (float) Math.log(1.0 + (double) productTerms.size() / termScores.size());
+            if(scores == null) {
+                scores = new HashMap<>();
+                for(Map.Entry<Long, Float> entry : termScores.entrySet())
+                    scores.put(entry.getKey(), entry.getValue() * idf);
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for(Map.Entry<Long, Float> entry : scores.entrySet())
+                    entry.setValue(entry.getValue() + termScores.get(entry.getKey()) * idf);
+                if(scores.isEmpty())
+                    return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // The same matches ordered by a product field instead, ties broken by id in the same direction.
+    // Sorting here means a results page only ever loads its own rows, however many products match.
+    public List<Long> search(String query, String sortBy, boolean ascending) {
+        List<Long> matches;
+        Comparator<Long> order;
+        if(sortBy.equals(AppConstants.SORT_PRODUCTS_BY)) {
+            matches = new ArrayList<>(search(query));
+            order = Comparator.naturalOrder();
+        } else if(sortBy.equals(QUANTITY)) {
+            matches = new ArrayList<>(search(query));
+            if(matches.isEmpty())
+                return matches;
+            Map<Long, Integer> quantities = productStockRepository.findQuantities(matches);
+            order = Comparator.<Long, Integer>comparing(quantities::get, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Comparator.naturalOrder());
+        } else {
+            Comparator<SortKeys> field = SORTABLE_FIELDS.get(sortBy);
+            if(field == null)
+                throw new APIException("Search results can be sorted by " + AppConstants.SORT_PRODUCTS_BY + ", "
+                        + String.join(", ", new TreeSet<>(SORTABLE_FIELDS.keySet())) + " or " + QUANTITY
+                        + ", not " + sortBy);
+
+            // Keys are taken once, a product re-indexed mid-sort can't change under the comparator
+            Map<Long, SortKeys> keys = new HashMap<>();
+            for(Long productId : search(query)) {
+                SortKeys sortKeys = productSortKeys.get(productId);
+                if(sortKeys != null)
+                    keys.put(productId, sortKeys);
+            }
+            matches = new ArrayList<>(keys.keySet());
+            order = Comparator.<Long, SortKeys>comparing(keys::get, field).thenComparing(Comparator.naturalOrder());
+        }
+
+        matches.sort(ascending ? order : order.reversed());
+        return matches;
+    }
+
+    static List<String> tokenize(String text) {
+        if(text == null || text.isBlank())
+            return List.of();
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+}
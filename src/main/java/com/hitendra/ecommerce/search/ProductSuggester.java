@@ -0,0 +1,88 @@
+package com.hitendra.ecommerce.search;
+
+import com.hitendra.ecommerce.payload.SuggestionDTO;
+import com.hitendra.ecommerce.repository.CategoryRepository;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Autocomplete over product and category names. Readers always see a complete immutable snapshot,
+// rebuilds run on a background thread and are coalesced while one is already queued.
+@Component
+public class ProductSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    public static final String PRODUCT = "product";
+    public static final String CATEGORY = "category";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+
+    public ProductSuggester(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if(rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    logger.error("Suggestion index rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        SuggestionIndex current = index;
+        return current.suggest(query, limit).stream()
+                .map(current::entry)
+                .map(entry -> new SuggestionDTO(entry.text(), entry.type(), entry.id()))
+                .toList();
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        List<SuggestionEntry> entries = new ArrayList<>();
+        // Categories rank above products, more populated categories first
+        categoryRepository.findAllWithProductCount().forEach(category -> entries.add(new SuggestionEntry(
+                category.getCategoryName(), CATEGORY, category.getCategoryId(),
+                1 + category.getProductCount().intValue()
+        )));
+        productRepository.findAllProductText().forEach(product -> entries.add(new SuggestionEntry(
+                product.getProductName(), PRODUCT, product.getProductId(), 1
+        )));
+
+        index = SuggestionIndex.build(entries);
+        logger.info("Suggestion index rebuilt with {} entries in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,4 @@
+package com.hitendra.ecommerce.search;
+
+record SuggestionEntry(String text, String type, Long id, int weight) {
+}
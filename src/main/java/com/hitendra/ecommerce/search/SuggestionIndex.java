@@ -0,0 +1,184 @@
+package com.hitendra.ecommerce.search;
+
+import java.util.*;
+
+// Immutable prefix index: every word-start suffix of every entry, sorted, so a prefix is a contiguous range
+// (a flattened trie). A segment tree over that range answers "best entry in range" in O(log n), so top-k
+// completions cost O(k log n) however many keys share the prefix.
+final class SuggestionIndex {
+
+    static final SuggestionIndex EMPTY = build(List.of());
+
+    private final SuggestionEntry[] entries;
+    private final String[] keys;
+    private final int[] keyEntries;
+    private final int[] tree;
+    private final char[] alphabet;
+
+    private SuggestionIndex(SuggestionEntry[] entries, String[] keys, int[] keyEntries, char[] alphabet) {
+        this.entries = entries;
+        this.keys = keys;
+        this.keyEntries = keyEntries;
+        this.alphabet = alphabet;
+        this.tree = new int[Math.max(2, keys.length * 2)];
+        for(int i = 0; i < keys.length; i++)
+            tree[keys.length + i] = i;
+        for(int i = keys.length - 1; i > 0; i--)
+            tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+    }
+
+    static SuggestionIndex build(List<SuggestionEntry> entries) {
+        List<Map.Entry<String, Integer>> keyList = new ArrayList<>();
+        BitSet characters = new BitSet();
+        for(int entry = 0; entry < entries.size(); entry++) {
+            String normalized = normalize(entries.get(entry).text());
+            for(int i = 0; i < normalized.length(); i++) {
+                characters.set(normalized.charAt(i));
+                if(i == 0 || normalized.charAt(i - 1) == ' ')
+                    keyList.add(Map.entry(normalized.substring(i), entry));
+            }
+        }
+        keyList.sort(Map.Entry.<String, Integer>comparingByKey().thenComparing(Map.Entry::getValue));
+
+        String[] keys = new String[keyList.size()];
+        int[] keyEntries = new int[keyList.size()];
+        for(int i = 0; i < keyList.size(); i++) {
+            keys[i] = keyList.get(i).getKey();
+            keyEntries[i] = keyList.get(i).getValue();
+        }
+
+        char[] alphabet = new char[characters.cardinality()];
+        for(int c = characters.nextSetBit(0), i = 0; c >= 0; c = characters.nextSetBit(c + 1))
+            alphabet[i++] = (char) c;
+
+        return new SuggestionIndex(entries.toArray(new SuggestionEntry[0]), keys, keyEntries, alphabet);
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    SuggestionEntry entry(int entry) {
+        return entries[entry];
+    }
+
+    // Exact prefix completions first, then completions of prefixes within edit distance 1
+    List<Integer> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if(prefix.isEmpty() || limit <= 0 || keys.length == 0)
+            return List.of();
+
+        LinkedHashSet<Integer> results = new LinkedHashSet<>();
+        complete(prefix, limit, results);
+        if(results.size() >= limit)
+            return new ArrayList<>(results);
+
+        Set<Integer> fuzzy = new HashSet<>();
+        for(String variant : editsOf(prefix))
+            complete(variant, limit, fuzzy);
+        fuzzy.removeAll(results);
+
+        fuzzy.stream()
+                .sorted(this::compareEntries)
+                .limit(limit - results.size())
+                .forEach(results::add);
+        return new ArrayList<>(results);
+    }
+
+    private void complete(String prefix, int limit, Set<Integer> results) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        if(from >= to)
+            return;
+
+        // Ranges ordered by their best key, split around each emitted key
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareKeys(a[2], b[2]));
+        ranges.add(new int[]{from, to, best(from, to)});
+        int added = 0;
+        while(!ranges.isEmpty() && added < limit) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            if(results.add(keyEntries[position]))
+                added++;
+            if(range[0] < position)
+                ranges.add(new int[]{range[0], position, best(range[0], position)});
+            if(position + 1 < range[1])
+                ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+        }
+    }
+
+    private Set<String> editsOf(String word) {
+        Set<String> edits = new HashSet<>();
+        StringBuilder builder = new StringBuilder(word.length() + 1);
+        for(int i = 0; i < word.length(); i++) {
+            edits.add(builder.append(word, 0, i).append(word, i + 1, word.length()).toString());
+            builder.setLength(0);
+            if(i + 1 < word.length()) {
+                edits.add(builder.append(word, 0, i).append(word.charAt(i + 1)).append(word.charAt(i))
+                        .append(word, i + 2, word.length()).toString());
+                builder.setLength(0);
+            }
+        }
+        for(char c : alphabet) {
+            for(int i = 0; i <= word.length(); i++) {
+                edits.add(builder.append(word, 0, i).append(c).append(word, i, word.length()).toString());
+                builder.setLength(0);
+                if(i < word.length() && word.charAt(i) != c) {
+                    edits.add(builder.append(word, 0, i).append(c).append(word, i + 1, word.length()).toString());
+                    builder.setLength(0);
+                }
+            }
+        }
+        edits.remove(word);
+        edits.remove("");
+        return edits;
+    }
+
+    private int lowerBound(String target) {
+        int low = 0, high = keys.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(keys[mid].compareTo(target) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private int best(int from, int to) {
+        int result = from;
+        for(int l = from + keys.length, r = to + keys.length; l < r; l >>= 1, r >>= 1) {
+            if((l & 1) == 1)
+                result = better(result, tree[l++]);
+            if((r & 1) == 1)
+                result = better(result, tree[--r]);
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        return compareKeys(a, b) <= 0 ? a : b;
+    }
+
+    private int compareKeys(int a, int b) {
+        return compareEntries(keyEntries[a], keyEntries[b]);
+    }
+
+    // Heavier first, then shorter, then alphabetical
+    private int compareEntries(int a, int b) {
+        SuggestionEntry first = entries[a];
+        SuggestionEntry second = entries[b];
+        if(first.weight() != second.weight())
+            return Integer.compare(second.weight(), first.weight());
+        if(first.text().length() != second.text().length())
+            return Integer.compare(first.text().length(), second.text().length());
+        return first.text().compareTo(second.text());
+    }
+
+    static String normalize(String text) {
+        if(text == null)
+            return "";
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
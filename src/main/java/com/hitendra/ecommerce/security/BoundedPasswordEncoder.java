@@ -0,0 +1,148 @@
+package com.hitendra.ecommerce.security;
+
+import com.hitendra.ecommerce.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs BCrypt on a small pool of its own so a login storm can't take every request thread's CPU.
+// Checks for existing accounts go ahead of new hashes, and once queueCapacity calls are waiting
+// further ones are turned away at once with a PasswordHashingBusyException (503 + Retry-After).
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final int VERIFY = 0;
+    private static final int HASH = 1;
+
+    private final PasswordEncoder delegate;
+    private final int queueCapacity;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer verifyTimer;
+    private final Timer hashTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMs,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // The priority queue is unbounded, the queued counter is what enforces queueCapacity
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.verifyTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "verify")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "hash")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", queued, AtomicInteger::get)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("auth.password.rejected")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(HASH, hashTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(VERIFY, verifyTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(int priority, Timer timer, Callable<T> work) {
+        if(queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+
+        HashingTask<T> task = new HashingTask<>(priority, sequence.getAndIncrement(), timer, work);
+        executor.execute(task);
+        try {
+            return task.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch(TimeoutException e) {
+            // A task that hasn't started yet is skipped by the worker, one that has just finishes unobserved
+            task.cancel(false);
+            timedOut.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        } catch(InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Lower priority first, FIFO among equals
+    private final class HashingTask<T> extends FutureTask<T> implements Comparable<HashingTask<?>> {
+        private final int priority;
+        private final long sequence;
+        private final long enqueuedAt = System.nanoTime();
+
+        private HashingTask(int priority, long sequence, Timer timer, Callable<T> work) {
+            super(() -> timer.recordCallable(work));
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            // Cancelled tasks still come off the queue through here, so the count stays exact
+            queued.decrementAndGet();
+            if(!isCancelled())
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            super.run();
+        }
+
+        @Override
+        public int compareTo(HashingTask<?> other) {
+            if(priority != other.priority)
+                return Integer.compare(priority, other.priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
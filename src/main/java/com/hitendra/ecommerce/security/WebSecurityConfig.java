@@ -7,7 +7,10 @@ import com.hitendra.ecommerce.repository.RoleRepository;
 import com.hitendra.ecommerce.repository.UserRepository;
 import com.hitendra.ecommerce.security.jwt.AuthEntryPointJwt;
 import com.hitendra.ecommerce.security.jwt.AuthTokenFilter;
+import com.hitendra.ecommerce.security.jwt.TokenRevocationRegistry;
 import com.hitendra.ecommerce.security.services.UserDetailsServiceImplementation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,9 +48,9 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
@@ -57,12 +60,21 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${spring.app.auth.hashing.threads:0}") int threads,
+            @Value("${spring.app.auth.hashing.queueCapacity:64}") int queueCapacity,
+            @Value("${spring.app.auth.hashing.maxWaitMs:2000}") long maxWaitMs,
+            @Value("${spring.app.auth.hashing.retryAfterSeconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        // Half the cores by default, the rest stay free for catalog and checkout traffic
+        int hashingThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingThreads, queueCapacity, maxWaitMs,
+                retryAfterSeconds, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .exceptionHandling(exception->exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session->session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -77,7 +89,7 @@ public class WebSecurityConfig {
                                 .requestMatchers("/images/**").permitAll()
                                 .anyRequest().authenticated()
                 );
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -95,7 +107,7 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, TokenRevocationRegistry tokenRevocationRegistry) {
         return args -> {
             // Retrieve or create roles
             Role userRole = roleRepository.findByRoleName(AppRole.ROLE_USER)
@@ -138,18 +150,27 @@ public class WebSecurityConfig {
 
             // Update roles for existing users
             userRepository.findUsersByUsername("user1").ifPresent(user -> {
+                boolean rolesChanged = !user.getRoles().equals(userRoles);
                 user.setRoles(userRoles);
                 userRepository.save(user);
+                if(rolesChanged)
+                    tokenRevocationRegistry.revokeUser(user.getUsername());
             });
 
             userRepository.findUsersByUsername("seller1").ifPresent(seller -> {
+                boolean rolesChanged = !seller.getRoles().equals(sellerRoles);
                 seller.setRoles(sellerRoles);
                 userRepository.save(seller);
+                if(rolesChanged)
+                    tokenRevocationRegistry.revokeUser(seller.getUsername());
             });
 
             userRepository.findUsersByUsername("admin").ifPresent(admin -> {
+                boolean rolesChanged = !admin.getRoles().equals(adminRoles);
                 admin.setRoles(adminRoles);
                 userRepository.save(admin);
+                if(rolesChanged)
+                    tokenRevocationRegistry.revokeUser(admin.getUsername());
             });
         };
     }
@@ -1,5 +1,6 @@
 package com.hitendra.ecommerce.security.jwt;
 
+import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,6 +28,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Value("${spring.app.jwtStatelessPrincipal:false}")
+    private boolean statelessPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -36,10 +47,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilterCalled for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if(jwt!=null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.generateUsernameFromToken(jwt);
-                UserDetails userDetails =  userDetailsService.loadUserByUsername(username);
-
+            UserDetails userDetails = jwt!=null ? verifiedTokenCache.get(jwt) : null;
+            // Taken before the checks below, so a revocation landing meanwhile keeps their result out of the cache
+            long generation = verifiedTokenCache.generation();
+            JwtClaims claims = userDetails==null && jwt!=null ? jwtUtils.verifyToken(jwt) : null;
+            if(claims!=null && statelessPrincipal && claims.getUserId()!=null) {
+                // Stateless principal: authorities come from the signed claims, no users/roles query
+                if(!tokenRevocationRegistry.isRevoked(claims)) {
+                    userDetails = UserDetailsImplementation.build(claims);
+                    verifiedTokenCache.put(jwt, claims, (UserDetailsImplementation) userDetails, generation);
+                }
+            } else if(claims!=null) {
+                userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                verifiedTokenCache.put(jwt, claims, (UserDetailsImplementation) userDetails, generation);
+            }
+            if(userDetails!=null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
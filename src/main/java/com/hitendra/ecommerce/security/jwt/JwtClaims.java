@@ -0,0 +1,18 @@
+package com.hitendra.ecommerce.security.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class JwtClaims {
+    private final String subject;
+    private final Long userId;
+    private final String email;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final List<String> roles;
+}
@@ -1,25 +1,28 @@
 package com.hitendra.ecommerce.security.jwt;
 
 import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtils {
@@ -34,6 +37,23 @@ public class JwtUtils {
     @Value("${spring.ecom.app.jwtCookieName}")
     private String jwtCookie;
 
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String EMAIL_CLAIM = "email";
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    //Building secret key and parser once, both are immutable and thread safe
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     public String getJwtFromCookies(HttpServletRequest request) {
         Cookie cookie = WebUtils.getCookie(request, jwtCookie);
         if(cookie!=null) {
@@ -70,40 +90,35 @@ public class JwtUtils {
     }
 
      //Generating token from username
-    public String generateTokenFromUsername(UserDetails userDetails) {
+    public String generateTokenFromUsername(UserDetailsImplementation userDetails) {
          String username = userDetails.getUsername();
+         List<String> roles = userDetails.getAuthorities().stream()
+                 .map(GrantedAuthority::getAuthority)
+                 .toList();
          return Jwts.builder()
                  .subject(username)
+                 .claim(USER_ID_CLAIM, userDetails.getId())
+                 .claim(EMAIL_CLAIM, userDetails.getEmail())
+                 .claim(ROLES_CLAIM, roles)
                  .issuedAt(new Date())
                  .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                 .signWith(key())
+                 .signWith(signingKey)
                  .compact();
     }
 
-    //Getting username from token
-    public String generateUsernameFromToken(String token) {
-         return Jwts.parser()
-                 .verifyWith((SecretKey)key())
-                 .build().parseSignedClaims(token)
-                 .getPayload().getSubject();
-    }
-
-    //Generating secret key
-    public Key key() {
-         return Keys.hmacShaKeyFor(
-                 Decoders.BASE64.decode(jwtSecret)
-         );
-    }
-
-    //Validate JWT token
-    public boolean validateJwtToken(String authToken) {
+    //Verifying signature once and returning the claims, null if the token is invalid
+    public JwtClaims verifyToken(String authToken) {
          try {
-             System.out.println("Validate");
-             Jwts.parser()
-                     .verifyWith((SecretKey) key())
-                     .build()
-                     .parseSignedClaims(authToken);
-             return true;
+             Claims claims = jwtParser.parseSignedClaims(authToken).getPayload();
+             List<?> roles = claims.get(ROLES_CLAIM, List.class);
+             return new JwtClaims(
+                     claims.getSubject(),
+                     claims.get(USER_ID_CLAIM, Long.class),
+                     claims.get(EMAIL_CLAIM, String.class),
+                     claims.getIssuedAt(),
+                     claims.getExpiration(),
+                     roles == null ? List.of() : roles.stream().map(String::valueOf).toList()
+             );
          } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
          } catch (ExpiredJwtException e) {
@@ -113,6 +128,6 @@ public class JwtUtils {
          } catch (IllegalArgumentException e) {
             logger.error("JWT claim string is empty: {}", e.getMessage());
          }
-         return false;
+         return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.hitendra.ecommerce.security.jwt;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tokens of a user issued up to their last role or password change are rejected.
+// Kept in memory per node, so the token lifetime remains the upper bound across restarts.
+@Component
+public class TokenRevocationRegistry {
+
+    // Epoch second of the last change per user
+    private final Map<String, Long> revokedThrough = new ConcurrentHashMap<>();
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public TokenRevocationRegistry(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    public void revokeUser(String username) {
+        // iat has second precision, a token from the change's own second may predate it and is rejected too.
+        // A sign-in that lands in that same second has to be repeated.
+        revokedThrough.put(username, System.currentTimeMillis() / 1000);
+        verifiedTokenCache.evictUser(username);
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        Long cutoff = revokedThrough.get(claims.getSubject());
+        return cutoff != null
+                && (claims.getIssuedAt() == null || claims.getIssuedAt().getTime() / 1000 <= cutoff);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hitendra.ecommerce.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tokens that already passed signature verification, keyed by SHA-256 digest.
+// Entries live until the token expires or the TTL elapses, whichever comes first.
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    // Bumped by every evictUser, a verification that started before one must not leave its result behind
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VerifiedTokenCache(
+            @Value("${spring.app.tokenCacheMaxSize:10000}") long maxSize,
+            @Value("${spring.app.tokenCacheTtlMs:300000}") long ttlMs,
+            MeterRegistry meterRegistry
+    ) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                value.claims().getExpiration().getTime() - System.currentTimeMillis()
+                        );
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtTokens");
+    }
+
+    public UserDetailsImplementation get(String token) {
+        VerifiedToken verifiedToken = cache.getIfPresent(digest(token));
+        return verifiedToken != null ? verifiedToken.userDetails() : null;
+    }
+
+    //Taken before verifying a token, handed to put with the result
+    public long generation() {
+        return evictions.get();
+    }
+
+    // An eviction between generation() and put may have run before the entry existed, the entry is dropped again.
+    // Checked after the put, an eviction that comes later removes the entry itself
+    public void put(String token, JwtClaims claims, UserDetailsImplementation userDetails, long generation) {
+        String key = digest(token);
+        cache.put(key, new VerifiedToken(claims, userDetails));
+        if(evictions.get() != generation)
+            cache.invalidate(key);
+    }
+
+    //Dropping every cached token of a user whose roles or password changed
+    public void evictUser(String username) {
+        evictions.incrementAndGet();
+        cache.asMap().values()
+                .removeIf(verifiedToken -> verifiedToken.userDetails().getUsername().equals(username));
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(JwtClaims claims, UserDetailsImplementation userDetails) {
+    }
+}
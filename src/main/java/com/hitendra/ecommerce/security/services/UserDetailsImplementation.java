@@ -2,6 +2,7 @@ package com.hitendra.ecommerce.security.services;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hitendra.ecommerce.model.User;
+import com.hitendra.ecommerce.security.jwt.JwtClaims;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -51,6 +52,22 @@ public class UserDetailsImplementation implements UserDetails {
 
     }
 
+    //Building principal straight from verified token claims, no password is carried
+    public static UserDetailsImplementation build(JwtClaims claims) {
+
+        List<GrantedAuthority> authorities = claims.getRoles().stream()
+                .map(role->new SimpleGrantedAuthority(role))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImplementation(
+                claims.getUserId(),
+                claims.getSubject(),
+                claims.getEmail(),
+                null,
+                authorities
+        );
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
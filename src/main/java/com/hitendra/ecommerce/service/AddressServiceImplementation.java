@@ -2,13 +2,13 @@ package com.hitendra.ecommerce.service;
 
 import com.hitendra.ecommerce.exceptions.APIException;
 import com.hitendra.ecommerce.exceptions.ResourceNotFoundException;
+import com.hitendra.ecommerce.mapper.AddressMapper;
 import com.hitendra.ecommerce.model.Address;
 import com.hitendra.ecommerce.model.User;
 import com.hitendra.ecommerce.payload.AddressDTO;
 import com.hitendra.ecommerce.repository.AddressRepository;
 import com.hitendra.ecommerce.repository.UserRepository;
 import com.hitendra.ecommerce.utils.AuthUtil;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,13 +16,13 @@ import java.util.List;
 @Service
 public class AddressServiceImplementation implements AddressService {
 
-    private final ModelMapper modelMapper;
+    private final AddressMapper addressMapper;
     private final AddressRepository addressRepository;
     private final UserRepository userRepository;
     private final AuthUtil authUtil;
 
-    public AddressServiceImplementation(ModelMapper modelMapper, AddressRepository addressRepository, UserRepository userRepository, AuthUtil authUtil) {
-        this.modelMapper = modelMapper;
+    public AddressServiceImplementation(AddressMapper addressMapper, AddressRepository addressRepository, UserRepository userRepository, AuthUtil authUtil) {
+        this.addressMapper = addressMapper;
         this.addressRepository = addressRepository;
         this.userRepository = userRepository;
         this.authUtil = authUtil;
@@ -31,7 +31,7 @@ public class AddressServiceImplementation implements AddressService {
     @Override
     public AddressDTO createAddress(AddressDTO addressDTO, User user) {
 
-        Address address = modelMapper.map(addressDTO, Address.class);
+        Address address = addressMapper.toEntity(addressDTO);
         List<Address> addressList = user.getAddresses();
         addressList.add(address);
         user.setAddresses(addressList);
@@ -40,7 +40,7 @@ public class AddressServiceImplementation implements AddressService {
 
         Address savedAddress = addressRepository.save(address);
 
-        return modelMapper.map(savedAddress, AddressDTO.class);
+        return addressMapper.toDTO(savedAddress);
 
     }
 
@@ -52,7 +52,7 @@ public class AddressServiceImplementation implements AddressService {
 
         return addressList.stream()
                 .map(
-                        address -> modelMapper.map(address, AddressDTO.class)
+                        address -> addressMapper.toDTO(address)
                 ).toList();
     }
 
@@ -61,7 +61,7 @@ public class AddressServiceImplementation implements AddressService {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
 
-        return modelMapper.map(address, AddressDTO.class);
+        return addressMapper.toDTO(address);
     }
 
     @Override
@@ -73,7 +73,7 @@ public class AddressServiceImplementation implements AddressService {
             throw new APIException("User doesn't have any saved addresses");
         
         return userAddress.stream().map(address ->
-                    modelMapper.map(address, AddressDTO.class)
+                    addressMapper.toDTO(address)
                 ).toList();
     }
 
@@ -97,7 +97,7 @@ public class AddressServiceImplementation implements AddressService {
        user.getAddresses().add(updatedAddress);
         userRepository.save(user);
 
-        return modelMapper.map(updatedAddress, AddressDTO.class);
+        return addressMapper.toDTO(updatedAddress);
     }
 
     @Override
@@ -111,6 +111,6 @@ public class AddressServiceImplementation implements AddressService {
 
         user.getAddresses().removeIf(address -> address.getAddressId().equals(addressId));
 
-        return modelMapper.map(savedAddress, AddressDTO.class);
+        return addressMapper.toDTO(savedAddress);
     }
 }
@@ -1,8 +1,7 @@
 package com.hitendra.ecommerce.service;
 
 import com.hitendra.ecommerce.payload.CartDTO;
-import jakarta.transaction.Transactional;
-
+import com.hitendra.ecommerce.payload.CartLineUpdateDTO;
 import java.util.List;
 
 public interface CartService {
@@ -12,10 +11,16 @@ public interface CartService {
 
     CartDTO getUserCart();
 
-    @Transactional
     CartDTO updateUserCart(Long productId, int quantity);
 
+    // Raw +/- on one line of a user's cart, what updateUserCart writes directly and the coalescer writes merged
+    CartDTO applyQuantityDelta(String email, Long productId, int quantity);
+
+    CartDTO updateUserCartLines(List<CartLineUpdateDTO> lines);
+
     String deleteProductFromCart(Long cartId, Long productId);
 
-    void updateProductsInCarts(Long cartId, Long productId);
+    void repriceProductInCarts(Long productId, double productPrice, double discount);
+
+    void removeProductFromCarts(Long productId);
 }
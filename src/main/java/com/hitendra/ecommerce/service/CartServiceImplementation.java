@@ -2,21 +2,29 @@ package com.hitendra.ecommerce.service;
 
 import com.hitendra.ecommerce.exceptions.APIException;
 import com.hitendra.ecommerce.exceptions.ResourceNotFoundException;
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.CartMapper;
 import com.hitendra.ecommerce.model.Cart;
 import com.hitendra.ecommerce.model.CartItem;
 import com.hitendra.ecommerce.model.Product;
 import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.payload.CartLineUpdateDTO;
 import com.hitendra.ecommerce.payload.ProductDTO;
 import com.hitendra.ecommerce.repository.CartItemRepository;
 import com.hitendra.ecommerce.repository.CartRepository;
 import com.hitendra.ecommerce.repository.ProductRepository;
 import com.hitendra.ecommerce.utils.AuthUtil;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
 @Service
 public class CartServiceImplementation implements CartService{
@@ -24,15 +32,23 @@ public class CartServiceImplementation implements CartService{
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
-    private final ModelMapper modelMapper;
+    private final CartMapper cartMapper;
+    private final InventoryService inventoryService;
+    private final CartHolds cartHolds;
+    private final CartUpdateCoalescer cartUpdateCoalescer;
+    private final TransactionTemplate transactionTemplate;
 
     private final AuthUtil authUtil;
 
-    public CartServiceImplementation(CartRepository cartRepository, ProductRepository productRepository, CartItemRepository cartItemRepository, ModelMapper modelMapper, AuthUtil authUtil) {
+    public CartServiceImplementation(CartRepository cartRepository, ProductRepository productRepository, CartItemRepository cartItemRepository, CartMapper cartMapper, InventoryService inventoryService, CartHolds cartHolds, CartUpdateCoalescer cartUpdateCoalescer, PlatformTransactionManager transactionManager, AuthUtil authUtil) {
         this.cartRepository = cartRepository;
         this.productRepository = productRepository;
         this.cartItemRepository = cartItemRepository;
-        this.modelMapper = modelMapper;
+        this.cartMapper = cartMapper;
+        this.inventoryService = inventoryService;
+        this.cartHolds = cartHolds;
+        this.cartUpdateCoalescer = cartUpdateCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.authUtil = authUtil;
     }
 
@@ -50,6 +66,8 @@ public class CartServiceImplementation implements CartService{
     @Override
     public CartDTO addProductToCart(Long productId, Integer quantity) {
 
+        // Pending clicks may still take a line out of the cart, the duplicate check has to see it gone
+        cartUpdateCoalescer.flush(authUtil.loggedInEmail());
         Cart userCart = createCart();
 
         Product product = productRepository
@@ -65,12 +83,14 @@ public class CartServiceImplementation implements CartService{
             throw new APIException(product.getProductName()+ " already exists in the cart.");
         }
 
-        if(product.getQuantity()==0) {
+        int available = inventoryService.available(product) - cartHolds.heldByOthers(userCart.getCardId(), productId);
+
+        if(available<=0) {
             throw new APIException(product.getProductName()+ " is not available.");
         }
 
-        if(product.getQuantity()<quantity) {
-            throw new APIException("Please make an order of " + product.getProductName() + " less or equal to quantity: " + product.getQuantity() + ".");
+        if(available<quantity) {
+            throw new APIException("Please make an order of " + product.getProductName() + " less or equal to quantity: " + available + ".");
         }
 
         CartItem newCartItem = new CartItem();
@@ -89,66 +109,47 @@ public class CartServiceImplementation implements CartService{
         userCart.setTotalPrice(userCart.getTotalPrice() + (product.getSpecialPrice() * quantity));
 
         Cart cart = cartRepository.save(userCart);
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-        List<CartItem> cartItems = cart.getCartItems();
-
-        Stream<ProductDTO> productStream = cartItems.stream().map(item->{
-            ProductDTO map = modelMapper.map(item.getProduct(), ProductDTO.class);
-            map.setQuantity(item.getQuantity());
-            return map;
-        });
+        cartHolds.hold(cart.getCardId(), productId, quantity);
 
-        cartDTO.setProducts(productStream.toList());
-
-        return cartDTO;
+        return cartMapper.toDTO(cart);
     }
 
     @Override
     public List<CartDTO> getAllCarts() {
-        List<Cart> carts = cartRepository.findAll();
+        List<CartDTO> carts = cartMapper.toDTOs(cartRepository.findAllCartLines());
         if(carts.isEmpty())
             throw new APIException("No carts available at the moment");
-        return carts.stream()
-                .map(cart -> {
-                    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-                    cart.getCartItems().forEach(
-                            c->c.getProduct().setQuantity(c.getQuantity())
-                    );
-                    List<ProductDTO> productDTOS = cart.getCartItems().stream()
-                            .map(product -> modelMapper.map(product.getProduct(), ProductDTO.class))
-                            .toList();
-                    cartDTO.setProducts(productDTOS);
-                    return cartDTO;
-                }).toList();
+        return carts;
     }
 
     @Override
     public CartDTO getUserCart() {
 
         String email = authUtil.loggedInEmail();
-        Long cartId = cartRepository.findCartByEmail(email).getCardId();
-        Cart cart = cartRepository.findCartByEmailAndCardId(email, cartId);
-        if(cart!=null) {
-            CartDTO cartDTO =  modelMapper.map(cart, CartDTO.class);
-            cart.getCartItems().forEach(
-                    c->c.getProduct().setQuantity(c.getQuantity())
-            );
-            List<ProductDTO> cartItems = cart.getCartItems().stream()
-                    .map(item -> modelMapper.map(item.getProduct(), ProductDTO.class))
-                    .toList();
-            cartDTO.setProducts(cartItems);
-            return cartDTO;
-        }
+        cartUpdateCoalescer.flush(email);
+        List<CartDTO> carts = cartMapper.toDTOs(cartRepository.findCartLinesByEmail(email));
+        if(carts.isEmpty())
+            throw new APIException("User doesn't have any existing cart");
 
-        throw new APIException("User doesn't have any existing cart");
+        return carts.get(0);
     }
 
+    // No transaction around the coalescing path: waiting on the cart's stripe lock while holding a connection
+    // would let every queued click pin one, plus a second for the flush ahead of it
     @Override
-    @Transactional
     public CartDTO updateUserCart(Long productId, int quantity) {
+        String email = authUtil.loggedInEmail();
+        if(cartUpdateCoalescer.isEnabled())
+            return cartUpdateCoalescer.locked(email, () -> coalesceUserCartUpdate(email, productId, quantity));
+
+        return transactionTemplate.execute(status -> applyQuantityDelta(email, productId, quantity));
+    }
+
+    @Override
+    @Transactional
+    public CartDTO applyQuantityDelta(String email, Long productId, int quantity) {
         Long cartId = cartRepository
-                .findCartByEmail(authUtil.loggedInEmail())
+                .findCartByEmail(email)
                 .getCardId();
 
         Cart cart = cartRepository.findById(cartId)
@@ -157,13 +158,9 @@ public class CartServiceImplementation implements CartService{
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        if(product.getQuantity()==0) {
-            throw new APIException(product.getProductName()+ " is not available.");
-        }
-
-        if(product.getQuantity()<quantity) {
-            throw new APIException("Please make an order of " + product.getProductName() + " less or equal to quantity: " + product.getQuantity() + ".");
-        }
+        // Taking units out of a cart never needs stock, even when the product has sold out
+        if(quantity > 0)
+            checkAvailable(product, cartId, quantity);
 
         CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(productId, cartId);
 
@@ -177,13 +174,14 @@ public class CartServiceImplementation implements CartService{
         }
 
         if(newQuantity==0) {
-            deleteProductFromCart(cartId, productId);
+            removeCartLine(cartId, productId);
         } else {
             cartItem.setProductPrice(product.getSpecialPrice());
             cartItem.setQuantity(cartItem.getQuantity() + quantity);
             cartItem.setDiscount(product.getDiscount());
             cart.setTotalPrice(cart.getTotalPrice() + (cartItem.getProductPrice() * quantity));
             cartRepository.save(cart);
+            cartHolds.hold(cartId, productId, newQuantity);
         }
 
         CartItem updatedItem = cartItemRepository.save(cartItem);
@@ -191,22 +189,160 @@ public class CartServiceImplementation implements CartService{
             cartItemRepository.deleteById(updatedItem.getCartItemId());
         }
 
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        List<CartItem> cartItems = cart.getCartItems();
+        return cartMapper.toDTO(cart);
+    }
+
+    // Answering from the stored cart plus the pending deltas. Stock is checked against the merged delta here,
+    // with the same rule the flush applies, so an accepted click is only dropped if stock moves before the flush
+    private CartDTO coalesceUserCartUpdate(String email, Long productId, int quantity) {
+        List<CartDTO> carts = cartMapper.toDTOs(cartRepository.findCartLinesByEmail(email));
+        if(carts.isEmpty())
+            throw new APIException("User doesn't have any existing cart");
+
+        CartDTO cartDTO = carts.get(0);
+        Map<Long, Integer> pending = cartUpdateCoalescer.pending(email);
 
-        Stream<ProductDTO> productDTOStream = cartItems.stream().map(item->{
-            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
-            productDTO.setQuantity(item.getQuantity());
-            return productDTO;
-        });
+        ProductDTO line = null;
+        for(ProductDTO productDTO : cartDTO.getProducts())
+            if(productDTO.getProductId().equals(productId))
+                line = productDTO;
+
+        if(line==null)
+            throw new APIException("Product " + productId + " doesn't present in user cart.");
+
+        int mergedDelta = pending.getOrDefault(productId, 0) + quantity;
+        if(line.getQuantity() + mergedDelta < 0) {
+            throw new APIException("The resulting quantity can't be zero");
+        }
 
-        cartDTO.setProducts(productDTOStream.toList());
+        if(mergedDelta > 0) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+            checkAvailable(product, cartDTO.getCartId(), mergedDelta);
+        }
+
+        cartUpdateCoalescer.submit(email, productId, quantity);
+        pending.merge(productId, quantity, Integer::sum);
+
+        double totalPrice = cartDTO.getTotalPrice();
+        Iterator<ProductDTO> products = cartDTO.getProducts().iterator();
+        while(products.hasNext()) {
+            ProductDTO productDTO = products.next();
+            int delta = pending.getOrDefault(productDTO.getProductId(), 0);
+            productDTO.setQuantity(productDTO.getQuantity() + delta);
+            totalPrice += productDTO.getSpecialPrice() * delta;
+            if(productDTO.getQuantity() == 0)
+                products.remove();
+        }
+        cartDTO.setTotalPrice(totalPrice);
         return cartDTO;
     }
 
+    private void checkAvailable(Product product, Long cartId, int quantity) {
+        int available = inventoryService.available(product) - cartHolds.heldByOthers(cartId, product.getProductId());
+
+        if(available<=0) {
+            throw new APIException(product.getProductName()+ " is not available.");
+        }
+
+        if(available<quantity) {
+            throw new APIException("Please make an order of " + product.getProductName() + " less or equal to quantity: " + available + ".");
+        }
+    }
+
+    //One cart load, one product lookup and a single total recalculation for the whole batch
+    @Override
+    @Transactional
+    public CartDTO updateUserCartLines(List<CartLineUpdateDTO> lines) {
+        if(lines == null || lines.isEmpty())
+            throw new APIException("No cart lines to update");
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for(CartLineUpdateDTO line : lines) {
+            if(line.getProductId() == null || line.getQuantity() == null)
+                throw new APIException("Every cart line needs a productId and a quantity");
+            if(line.getQuantity() < 0)
+                throw new APIException("The quantity can't be negative");
+            if(quantities.put(line.getProductId(), line.getQuantity()) != null)
+                throw new APIException("Product " + line.getProductId() + " appears more than once");
+        }
+
+        String email = authUtil.loggedInEmail();
+        cartUpdateCoalescer.flush(email);
+        Cart cart = cartRepository.findCartWithItemsByEmail(email);
+        if(cart == null)
+            cart = createCart();
+
+        Map<Long, Product> products = new HashMap<>();
+        for(Product product : productRepository.findAllById(quantities.keySet()))
+            products.put(product.getProductId(), product);
+
+        Map<Long, CartItem> cartItems = new HashMap<>();
+        for(CartItem cartItem : cart.getCartItems())
+            cartItems.put(cartItem.getProduct().getProductId(), cartItem);
+
+        for(Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+
+            Product product = products.get(productId);
+            if(product == null)
+                throw new ResourceNotFoundException("Product", "productId", productId);
+
+            CartItem cartItem = cartItems.get(productId);
+            if(quantity == 0) {
+                if(cartItem != null)
+                    cart.getCartItems().remove(cartItem);
+                continue;
+            }
+
+            int available = inventoryService.available(product) - cartHolds.heldByOthers(cart.getCardId(), productId);
+
+            if(available<=0) {
+                throw new APIException(product.getProductName()+ " is not available.");
+            }
+
+            if(available<quantity) {
+                throw new APIException("Please make an order of " + product.getProductName() + " less or equal to quantity: " + available + ".");
+            }
+
+            if(cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setCart(cart);
+                cartItem.setProduct(product);
+                cart.getCartItems().add(cartItem);
+            }
+            cartItem.setQuantity(quantity);
+            cartItem.setDiscount(product.getDiscount());
+            cartItem.setProductPrice(product.getSpecialPrice());
+        }
+
+        double totalPrice = 0;
+        for(CartItem cartItem : cart.getCartItems())
+            totalPrice += cartItem.getProductPrice() * cartItem.getQuantity();
+        cart.setTotalPrice(totalPrice);
+
+        Cart savedCart = cartRepository.save(cart);
+
+        for(Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if(line.getValue() == 0)
+                cartHolds.release(savedCart.getCardId(), line.getKey());
+            else
+                cartHolds.hold(savedCart.getCardId(), line.getKey(), line.getValue());
+        }
+
+        return cartMapper.toDTO(savedCart);
+    }
+
     @Transactional
     @Override
     public String deleteProductFromCart(Long cartId, Long productId) {
+        // Pending clicks on the line would otherwise be written after it's gone
+        cartUpdateCoalescer.flush(authUtil.loggedInEmail());
+        return removeCartLine(cartId, productId);
+    }
+
+    private String removeCartLine(Long cartId, Long productId) {
         Cart cart = cartRepository
                 .findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
@@ -223,28 +359,25 @@ public class CartServiceImplementation implements CartService{
         cart.setTotalPrice(cart.getTotalPrice() - (cartItem.getProductPrice() * cartItem.getQuantity()));
 
         cartItemRepository.deleteCartItemByProductIdAndCartId(productId, cartId);
+        cartHolds.release(cartId, productId);
 
         return cartItem.getProduct().getProductName() + " removed from cart";
     }
 
+    // Two statements whatever the number of carts: totals first while the old item prices are still there
     @Override
-    public void updateProductsInCarts(Long cartId, Long productId) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "cartId", cartId));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-
-        CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(productId, cartId);
-        if(cartItem==null)
-            throw new APIException(product.getProductName() + " doesn't exist in cart ");
-
-        double cartPrice = cart.getTotalPrice() - (cartItem.getProductPrice() * cartItem.getQuantity());
-
-        cartItem.setProductPrice(product.getSpecialPrice());
-
-        cart.setTotalPrice(cartPrice + (cartItem.getProductPrice() * cartItem.getQuantity()));
+    @Transactional
+    public void repriceProductInCarts(Long productId, double productPrice, double discount) {
+        cartRepository.repriceCartTotals(productId, productPrice);
+        cartItemRepository.repriceCartItems(productId, productPrice, discount);
+    }
 
-        cartItemRepository.save(cartItem);
+    // Same shape for deletion: deduct the lines from every total, then drop the lines themselves
+    @Override
+    @Transactional
+    public void removeProductFromCarts(Long productId) {
+        cartRepository.deductProductFromCartTotals(productId);
+        cartItemRepository.deleteAllByProductId(productId);
+        cartHolds.releaseProduct(productId);
     }
-}
\ No newline at end of file
+}
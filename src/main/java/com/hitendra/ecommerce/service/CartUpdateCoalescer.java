@@ -0,0 +1,194 @@
+package com.hitendra.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Optional write coalescing for the +1/-1 quantity endpoint. Deltas for the same cart line are summed
+// in memory for a short window and written once. Flushing a cart and reading it happen under the same
+// stripe lock, so a read that flushes first always sees the shopper's own clicks. Each merged line is written
+// in a transaction of its own, a line that fails at flush can't undo the others or the flushing caller's work.
+@Component
+public class CartUpdateCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartUpdateCoalescer.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final CartService cartService;
+    private final TransactionTemplate lineTransaction;
+    private final ScheduledExecutorService scheduler;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    // email -> productId -> pending line, a cart's map is created and swapped out inside compute()
+    private final Map<String, Map<Long, PendingLine>> pendingByCart = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedClicks = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final Counter submitted;
+    private final Counter saved;
+    private final Counter rejected;
+
+    public CartUpdateCoalescer(
+            @Value("${spring.app.cart.coalesce.enabled:false}") boolean enabled,
+            @Value("${spring.app.cart.coalesce.windowMs:200}") long windowMs,
+            @Lazy CartService cartService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.cartService = cartService;
+        this.lineTransaction = new TransactionTemplate(transactionManager);
+        this.lineTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        for(int i = 0; i < LOCK_STRIPES; i++)
+            locks[i] = new Object();
+
+        this.submitted = Counter.builder("cart.coalesce.requests")
+                .register(meterRegistry);
+        FunctionCounter.builder("cart.coalesce.writes", writes, AtomicLong::get)
+                .register(meterRegistry);
+        this.saved = Counter.builder("cart.coalesce.writes.saved")
+                .register(meterRegistry);
+        // Clicks per write among everything flushed so far, 1.0 means nothing was merged
+        Gauge.builder("cart.coalesce.ratio", this, CartUpdateCoalescer::coalescingRatio)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("cart.coalesce.rejected")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(String email, Long productId, int delta) {
+        submitted.increment();
+        pendingByCart.compute(email, (key, lines) -> {
+            if(lines == null) {
+                lines = new ConcurrentHashMap<>();
+                scheduler.schedule(() -> flushQuietly(email), windowMs, TimeUnit.MILLISECONDS);
+            }
+            lines.computeIfAbsent(productId, id -> new PendingLine()).add(delta);
+            return lines;
+        });
+    }
+
+    //Net delta per product still waiting to be written for this cart
+    public Map<Long, Integer> pending(String email) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        Map<Long, PendingLine> lines = pendingByCart.get(email);
+        if(lines != null)
+            lines.forEach((productId, line) -> deltas.put(productId, line.delta()));
+        return deltas;
+    }
+
+    //Writing everything pending for one cart before returning, callers read right after
+    public void flush(String email) {
+        if(!enabled)
+            return;
+
+        synchronized(lockFor(email)) {
+            Map<Long, PendingLine> lines = pendingByCart.remove(email);
+            if(lines == null)
+                return;
+
+            lines.forEach((productId, line) -> {
+                int delta = line.delta();
+                int merged = line.merged();
+                flushedClicks.addAndGet(merged);
+                // Clicks that cancelled out never reach the database
+                if(delta == 0) {
+                    saved.increment(merged);
+                    return;
+                }
+
+                writes.incrementAndGet();
+                saved.increment(merged - 1);
+                try {
+                    lineTransaction.executeWithoutResult(status -> cartService.applyQuantityDelta(email, productId, delta));
+                } catch(RuntimeException e) {
+                    // Only stock that moved since the click was accepted gets here, see coalesceUserCartUpdate
+                    rejected.increment();
+                    logger.warn("Dropping coalesced change of {} for product {} in cart of {}: {}",
+                            delta, productId, email, e.getMessage());
+                }
+            });
+        }
+    }
+
+    //Running work on a cart with no flush of the same cart interleaving
+    public <T> T locked(String email, Supplier<T> action) {
+        synchronized(lockFor(email)) {
+            return action.get();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if(!enabled)
+            return;
+
+        scheduler.shutdownNow();
+        pendingByCart.keySet().forEach(this::flush);
+    }
+
+    private void flushQuietly(String email) {
+        try {
+            flush(email);
+        } catch(RuntimeException e) {
+            logger.warn("Coalesced flush for cart of {} failed", email, e);
+        }
+    }
+
+    private double coalescingRatio() {
+        long writeCount = writes.get();
+        return writeCount == 0 ? 0 : (double) flushedClicks.get() / writeCount;
+    }
+
+    private Object lockFor(String email) {
+        return locks[(email.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private static final class PendingLine {
+        private int delta;
+        private int merged;
+
+        private synchronized void add(int change) {
+            delta += change;
+            merged++;
+        }
+
+        private synchronized int delta() {
+            return delta;
+        }
+
+        private synchronized int merged() {
+            return merged;
+        }
+    }
+}
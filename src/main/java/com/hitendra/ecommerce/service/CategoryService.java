@@ -1,5 +1,6 @@
 package com.hitendra.ecommerce.service;
 
+import com.hitendra.ecommerce.payload.CategoryCursorResponse;
 import com.hitendra.ecommerce.payload.CategoryDTO;
 import com.hitendra.ecommerce.payload.CategoryResponse;
 
@@ -7,6 +8,8 @@ import com.hitendra.ecommerce.payload.CategoryResponse;
 public interface CategoryService {
     CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    CategoryCursorResponse getAllCategoriesByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     CategoryDTO createCategory(CategoryDTO categoryDTO);
 
     CategoryDTO deleteCategory(Long categoryID);
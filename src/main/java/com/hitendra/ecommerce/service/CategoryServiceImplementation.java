@@ -1,16 +1,29 @@
 package com.hitendra.ecommerce.service;
 
+import com.hitendra.ecommerce.config.AppConstants;
+import com.hitendra.ecommerce.config.CacheConfig;
 import com.hitendra.ecommerce.exceptions.APIException;
 import com.hitendra.ecommerce.exceptions.ResourceNotFoundException;
+import com.hitendra.ecommerce.mapper.CategoryMapper;
 import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.CategoryCursorResponse;
 import com.hitendra.ecommerce.payload.CategoryDTO;
 import com.hitendra.ecommerce.payload.CategoryResponse;
 import com.hitendra.ecommerce.repository.CategoryRepository;
-import org.modelmapper.ModelMapper;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import com.hitendra.ecommerce.utils.AfterCommit;
+import com.hitendra.ecommerce.utils.KeysetCursor;
+import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,11 +33,17 @@ public class CategoryServiceImplementation implements CategoryService{
 
     private final CategoryRepository categoryRepository;
 
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
 
-    public CategoryServiceImplementation(CategoryRepository categoryRepository, ModelMapper modelMapper) {
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ProductSuggester productSuggester;
+
+    public CategoryServiceImplementation(CategoryRepository categoryRepository, CategoryMapper categoryMapper, ProductSearchIndex productSearchIndex, ProductSuggester productSuggester) {
         this.categoryRepository = categoryRepository;
-        this.modelMapper = modelMapper;
+        this.categoryMapper = categoryMapper;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
     }
 
     @Override
@@ -42,7 +61,7 @@ public class CategoryServiceImplementation implements CategoryService{
             throw new APIException("No categories present at the moment.");
 
         List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(category -> categoryMapper.toDTO(category))
                 .toList();
 
         CategoryResponse categoryResponse = new CategoryResponse();
@@ -56,24 +75,41 @@ public class CategoryServiceImplementation implements CategoryService{
     }
 
     @Override
-    public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
-        Category existingCategory = categoryRepository
-                .findCategoryByCategoryName(
-                        categoryDTO.getCategoryName()
-                );
+    public CategoryCursorResponse getAllCategoriesByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Sort sort = KeysetCursor.sort(sortBy, sortOrder, AppConstants.CURSOR_SORT_CATEGORIES_BY);
+        KeysetScrollPosition position = KeysetCursor.position(cursor, Category.class, sort);
+
+        Specification<Category> allCategories = (root, query, criteriaBuilder) -> null;
+        Window<Category> categoryWindow = categoryRepository.findBy(allCategories, query -> query
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(position)
+        );
+
+        List<CategoryDTO> categoryDTOS = categoryWindow.getContent().stream()
+                .map(category -> categoryMapper.toDTO(category))
+                .toList();
 
-        if(existingCategory!=null)
+        return new CategoryCursorResponse(categoryDTOS, pageSize, KeysetCursor.next(categoryWindow), !categoryWindow.hasNext());
+    }
+
+    @Override
+    public CategoryDTO createCategory(CategoryDTO categoryDTO) {
+        Category category = categoryMapper.toEntity(categoryDTO);
+        if(categoryRepository.existsByCategoryName(categoryDTO.getCategoryName()))
             throw new APIException(
                     "Category with name " + categoryDTO.getCategoryName() + " already exists"
             );
 
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        productSuggester.requestRebuild();
+        return categoryMapper.toDTO(savedCategory);
     }
 
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
     public CategoryDTO deleteCategory(
             Long categoryID
     ) {
@@ -82,9 +118,17 @@ public class CategoryServiceImplementation implements CategoryService{
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryID", categoryID)
                 );
+        // Read while the category is still managed, the products go with it
+        List<Long> productIds = category.getProducts().stream()
+                .map(Product::getProductId)
+                .toList();
         categoryRepository
                 .deleteById(categoryID);
-        return modelMapper.map(category, CategoryDTO.class);
+        AfterCommit.run(() -> {
+            productIds.forEach(productSearchIndex::remove);
+            productSuggester.requestRebuild();
+        });
+        return categoryMapper.toDTO(category);
 
     }
 
@@ -93,23 +137,21 @@ public class CategoryServiceImplementation implements CategoryService{
             CategoryDTO categoryDTO,
             Long categoryID
     ) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         categoryRepository
                 .findById(categoryID)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("category", "categoryID", categoryID)
                 );
 
-        Category sameNameCategory = categoryRepository
-                .findCategoryByCategoryName(categoryDTO.getCategoryName());
-
-        if(sameNameCategory!=null) {
+        if(categoryRepository.existsByCategoryNameAndCategoryIdNot(categoryDTO.getCategoryName(), categoryID)) {
             throw new APIException("Category Already Exists");
         }
 
         category.setCategoryId(categoryID);
 
         Category savedCategory =  categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        productSuggester.requestRebuild();
+        return categoryMapper.toDTO(savedCategory);
     }
 }
@@ -1,14 +1,18 @@
 package com.hitendra.ecommerce.service;
 
 import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.exceptions.InsufficientStockException;
 import com.hitendra.ecommerce.exceptions.ResourceNotFoundException;
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.inventory.StockLine;
+import com.hitendra.ecommerce.mapper.OrderMapper;
 import com.hitendra.ecommerce.model.*;
 import com.hitendra.ecommerce.payload.OrderDTO;
 import com.hitendra.ecommerce.payload.OrderItemDTO;
 import com.hitendra.ecommerce.repository.*;
 import com.hitendra.ecommerce.utils.AuthUtil;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -20,36 +24,48 @@ public class OrderServiceImplementation implements OrderService{
 
     private final AuthUtil authUtil;
     private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
     private final AddressRepository addressRepository;
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final ProductRepository productRepository;
-    private final CartService cartService;
-    private final ModelMapper modelMapper;
+    private final InventoryService inventoryService;
+    private final CartHolds cartHolds;
+    private final CartUpdateCoalescer cartUpdateCoalescer;
+    private final OrderMapper orderMapper;
 
-    public OrderServiceImplementation(AuthUtil authUtil, CartRepository cartRepository, AddressRepository addressRepository, PaymentRepository paymentRepository, OrderRepository orderRepository, ModelMapper modelMapper, OrderItemRepository orderItemRepository, ProductRepository productRepository, CartService cartService, ModelMapper modelMapper1) {
+    public OrderServiceImplementation(AuthUtil authUtil, CartRepository cartRepository, CartItemRepository cartItemRepository, AddressRepository addressRepository, PaymentRepository paymentRepository, OrderRepository orderRepository, OrderItemRepository orderItemRepository, InventoryService inventoryService, CartHolds cartHolds, CartUpdateCoalescer cartUpdateCoalescer, OrderMapper orderMapper) {
         this.authUtil = authUtil;
         this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
         this.addressRepository = addressRepository;
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.productRepository = productRepository;
-        this.cartService = cartService;
-        this.modelMapper = modelMapper1;
+        this.inventoryService = inventoryService;
+        this.cartHolds = cartHolds;
+        this.cartUpdateCoalescer = cartUpdateCoalescer;
+        this.orderMapper = orderMapper;
     }
 
     @Override
     @Transactional
     public OrderDTO placeOrder(Long addressId, String paymentMethod, String pgName, String pgPaymentId, String pgStatus, String pgResponseMessage) {
         String emailId = authUtil.loggedInEmail();
+        cartUpdateCoalescer.flush(emailId);
 
-        Cart cart = cartRepository.findCartByEmail(emailId);
+        Cart cart = cartRepository.findCartWithItemsByEmail(emailId);
 
         if(cart==null)
             throw new ResourceNotFoundException("Cart", "email", emailId);
 
+        List<CartItem> cartItems = cart.getCartItems();
+
+        if(cartItems.isEmpty())
+            throw new APIException("User doesn't have any product added in cart");
+
+        reserveStock(cartItems);
+
         Address address = addressRepository.findById(addressId)
                 .orElseThrow( () -> new ResourceNotFoundException("Address", "addressId", addressId));
 
@@ -69,46 +85,57 @@ public class OrderServiceImplementation implements OrderService{
 
         Order savedOrder = orderRepository.save(order);
 
-        List<CartItem> cartItems = cart.getCartItems();
-
-        if(cartItems.isEmpty())
-            throw new APIException("User doesn't have any product added in cart");
-
-        List<OrderItem> orderItems = new ArrayList<>();
+        // Whole cart in a fixed number of statements: one stock batch, one order item batch, one delete.
+        // Sequence ids keep the order item inserts batched through Hibernate
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
         for(CartItem cartItem : cartItems) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(cartItem.getProduct());
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setDiscount(cartItem.getDiscount());
-            orderItem.setOrderedProductPrice(cartItem.getProductPrice());
-            orderItem.setOrder(savedOrder);
-            orderItems.add(orderItem);
+            orderItems.add(new OrderItem(
+                    null,
+                    cartItem.getProduct(),
+                    savedOrder,
+                    cartItem.getQuantity(),
+                    cartItem.getDiscount(),
+                    cartItem.getProductPrice()
+            ));
         }
+        orderItems = orderItemRepository.saveAll(orderItems);
+        cartItemRepository.deleteAllByCartId(cart.getCardId());
+        cartHolds.releaseCart(cart.getCardId());
 
-        orderItems =  orderItemRepository.saveAll(orderItems);
-
-        cartItems.forEach(item -> {
-            int quantity = item.getQuantity();
-            Product product = item.getProduct();
-            product.setQuantity(product.getQuantity()-quantity);
-            productRepository.save(product);
-
-            cartService.deleteProductFromCart(cart.getCardId(), product.getProductId());
-        });
-
-
-        //Need to resolved as explicitly setting the cart value to 0 after placing the order
         cart.setTotalPrice(0.00);
-        cartRepository.save(cart);
 
-        OrderDTO orderDTO =  modelMapper.map(savedOrder, OrderDTO.class);
+        OrderDTO orderDTO =  orderMapper.toDTO(savedOrder);
 
-        orderItems.forEach(orderItem -> {
-            orderDTO.getOrderItems().add(modelMapper.map(orderItem, OrderItemDTO.class));
-        });
+        for(int i = 0; i < cartItems.size(); i++) {
+            CartItem cartItem = cartItems.get(i);
+            OrderItemDTO orderItemDTO = orderMapper.toDTO(orderItems.get(i));
+            // Stock was decremented in the database, the loaded product still holds the old level
+            orderItemDTO.getProduct().setQuantity(cartItem.getProduct().getQuantity() - cartItem.getQuantity());
+            orderDTO.getOrderItems().add(orderItemDTO);
+        }
 
         orderDTO.setAddressId(addressId);
 
         return orderDTO;
     }
-}
\ No newline at end of file
+
+    //Any short line fails the whole checkout, the rollback also undoes the lines that were reserved
+    private void reserveStock(List<CartItem> cartItems) {
+        List<StockLine> lines = cartItems.stream()
+                .map(item -> new StockLine(item.getProduct().getProductId(), item.getQuantity()))
+                .toList();
+
+        List<Long> shortProductIds = inventoryService.reserve(lines).stream()
+                .map(StockLine::productId)
+                .toList();
+        if(shortProductIds.isEmpty())
+            return;
+
+        List<String> shortProductNames = cartItems.stream()
+                .map(CartItem::getProduct)
+                .filter(product -> shortProductIds.contains(product.getProductId()))
+                .map(Product::getProductName)
+                .toList();
+        throw new InsufficientStockException(shortProductIds, shortProductNames);
+    }
+}
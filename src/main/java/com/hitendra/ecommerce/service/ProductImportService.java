@@ -0,0 +1,277 @@
+package com.hitendra.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hitendra.ecommerce.config.CacheConfig;
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductImportErrorDTO;
+import com.hitendra.ecommerce.payload.ProductImportReport;
+import com.hitendra.ecommerce.payload.ProductImportRowDTO;
+import com.hitendra.ecommerce.repository.CategoryRepository;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import com.hitendra.ecommerce.utils.AfterCommit;
+import com.hitendra.ecommerce.utils.CsvRecordReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+// Streams a catalog upload row by row into batched inserts. Memory holds one batch
+// plus the product names of the categories the upload touches, never the whole file.
+@Service
+public class ProductImportService {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Default length of the Product entity's varchar columns
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final List<String> REQUIRED_CSV_COLUMNS =
+            List.of("productName", "description", "quantity", "price", "categoryId");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggester productSuggester;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ProductImportService(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            ProductSearchIndex productSearchIndex,
+            ProductSuggester productSuggester,
+            ObjectMapper objectMapper,
+            @Value("${spring.app.productImport.batchSize:500}") int batchSize
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
+    public ProductImportReport importProducts(InputStream input, String contentType) throws IOException {
+        boolean csv = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV);
+        long started = System.nanoTime();
+
+        Import anImport = new Import();
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if(csv)
+                readCsv(reader, anImport);
+            else
+                readNdjson(reader, anImport);
+        }
+        anImport.flush();
+        if(anImport.report.getImported() > 0)
+            productSuggester.requestRebuild();
+
+        ProductImportReport report = anImport.report;
+        long elapsedNanos = System.nanoTime() - started;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos == 0 ? 0 : report.getRows() * 1_000_000_000.0 / elapsedNanos);
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, Import anImport) throws IOException {
+        CsvRecordReader csvReader = new CsvRecordReader(reader);
+        List<String> header = csvReader.readRecord();
+        if(header == null)
+            throw new APIException("The upload is empty");
+
+        Map<String, Integer> columns = new HashMap<>();
+        for(int i = 0; i < header.size(); i++)
+            columns.put(header.get(i).trim(), i);
+        for(String column : REQUIRED_CSV_COLUMNS)
+            if(!columns.containsKey(column))
+                throw new APIException("Missing CSV column: " + column);
+
+        long row = 0;
+        List<String> fields;
+        while((fields = csvReader.readRecord()) != null) {
+            row++;
+            if(fields.size() == 1 && fields.get(0).isBlank())
+                continue;
+            try {
+                anImport.add(row, new ProductImportRowDTO(
+                        field(fields, columns, "productName"),
+                        field(fields, columns, "description"),
+                        field(fields, columns, "image"),
+                        parse(field(fields, columns, "quantity"), Integer::valueOf),
+                        parse(field(fields, columns, "price"), Double::valueOf),
+                        parse(field(fields, columns, "discount"), Double::valueOf),
+                        parse(field(fields, columns, "categoryId"), Long::valueOf)
+                ));
+            } catch(NumberFormatException e) {
+                anImport.reject(row, "Not a number: " + e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import anImport) throws IOException {
+        long row = 0;
+        String line;
+        while((line = reader.readLine()) != null) {
+            row++;
+            if(line.isBlank())
+                continue;
+            try {
+                anImport.add(row, objectMapper.readValue(line, ProductImportRowDTO.class));
+            } catch(JsonProcessingException e) {
+                anImport.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if(index == null || index >= fields.size())
+            return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value);
+    }
+
+    // State of one upload: the open batch, the names seen per category and the report
+    private final class Import {
+
+        private final ProductImportReport report = new ProductImportReport();
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+        private final Map<Long, Category> categories = new HashMap<>();
+        private final Map<Long, Set<String>> namesByCategory = new HashMap<>();
+
+        private void add(long row, ProductImportRowDTO importRow) {
+            report.setRows(report.getRows() + 1);
+
+            String problem = validate(importRow);
+            if(problem != null) {
+                error(row, problem);
+                return;
+            }
+
+            Category category = category(importRow.getCategoryId());
+            if(category == null) {
+                error(row, "Category not found with categoryId: " + importRow.getCategoryId());
+                return;
+            }
+
+            // Covers both the names already stored and the ones earlier in this upload
+            if(!namesByCategory.get(category.getCategoryId()).add(importRow.getProductName())) {
+                error(row, "Product -> " + importRow.getProductName() + " already present in category -> " + category.getCategoryName());
+                return;
+            }
+
+            Product product = new Product();
+            product.setProductName(importRow.getProductName());
+            product.setDescription(importRow.getDescription());
+            product.setImage(importRow.getImage() != null ? importRow.getImage() : "default.png");
+            product.setQuantity(importRow.getQuantity());
+            product.setPrice(importRow.getPrice());
+            product.setDiscount(importRow.getDiscount() != null ? importRow.getDiscount() : 0);
+            product.setSpecialPrice(product.getPrice() - (product.getPrice()*product.getDiscount())/100);
+            product.setCategory(category);
+
+            batch.add(product);
+            batchRows.add(row);
+            if(batch.size() >= batchSize)
+                flush();
+        }
+
+        private void reject(long row, String message) {
+            report.setRows(report.getRows() + 1);
+            error(row, message);
+        }
+
+        private void flush() {
+            if(batch.isEmpty())
+                return;
+
+            try {
+                insert(batch);
+                report.setImported(report.getImported() + batch.size());
+            } catch(DataAccessException e) {
+                // One bad row rolls the whole batch back, retry row by row so only the bad rows are lost
+                for(int i = 0; i < batch.size(); i++) {
+                    Product product = batch.get(i);
+                    // The rolled back attempt already handed out an id, a fresh insert needs a fresh one
+                    product.setProductId(null);
+                    try {
+                        insert(List.of(product));
+                        report.setImported(report.getImported() + 1);
+                    } catch(DataAccessException rowFailure) {
+                        namesByCategory.get(product.getCategory().getCategoryId()).remove(product.getProductName());
+                        error(batchRows.get(i), "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        // One transaction per call, sequence ids let Hibernate send a batch as a single JDBC batch
+        private void insert(List<Product> products) {
+            List<Product> saved = productRepository.saveAllAndFlush(products);
+            AfterCommit.run(() -> saved.forEach(productSearchIndex::index));
+        }
+
+        private Category category(Long categoryId) {
+            if(!categories.containsKey(categoryId)) {
+                Category category = categoryRepository.findById(categoryId).orElse(null);
+                categories.put(categoryId, category);
+                if(category != null)
+                    namesByCategory.put(categoryId, new HashSet<>(productRepository.findProductNamesByCategoryId(categoryId)));
+            }
+            return categories.get(categoryId);
+        }
+
+        private void error(long row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if(report.getErrors().size() < MAX_REPORTED_ERRORS)
+                report.getErrors().add(new ProductImportErrorDTO(row, message));
+            else
+                report.setErrorsTruncated(true);
+        }
+    }
+
+    // Same rules as the Product entity constraints and addProduct
+    private static String validate(ProductImportRowDTO row) {
+        if(row.getProductName() == null || row.getProductName().trim().length() < 3)
+            return "Product name must contain at least more than 3 characters";
+        if(row.getProductName().length() > MAX_TEXT_LENGTH)
+            return "Product name must be at most " + MAX_TEXT_LENGTH + " characters";
+        if(row.getDescription() == null || row.getDescription().trim().length() < 3)
+            return "Product description must contain at least more than 3 characters";
+        if(row.getDescription().length() > MAX_TEXT_LENGTH)
+            return "Product description must be at most " + MAX_TEXT_LENGTH + " characters";
+        if(row.getImage() != null && row.getImage().length() > MAX_TEXT_LENGTH)
+            return "Image must be at most " + MAX_TEXT_LENGTH + " characters";
+        if(row.getQuantity() == null || row.getQuantity() < 0)
+            return "Quantity must be zero or more";
+        if(row.getPrice() == null || row.getPrice() < 0)
+            return "Price must be zero or more";
+        if(row.getDiscount() != null && (row.getDiscount() < 0 || row.getDiscount() > 100))
+            return "Discount must be between 0 and 100";
+        if(row.getCategoryId() == null)
+            return "categoryId is required";
+        return null;
+    }
+}
@@ -1,11 +1,14 @@
 package com.hitendra.ecommerce.service;
 
 import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductCursorResponse;
 import com.hitendra.ecommerce.payload.ProductDTO;
 import com.hitendra.ecommerce.payload.ProductResponse;
+import com.hitendra.ecommerce.payload.SuggestionDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface ProductService {
 
@@ -15,8 +18,14 @@ public interface ProductService {
 
     ProductResponse getProductsByCategories(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    ProductCursorResponse getAllProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductCursorResponse getProductsByCategoryByCursor(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     ProductResponse getProductsByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    List<SuggestionDTO> getSuggestions(String query, Integer limit);
+
     ProductDTO updateProduct(Long productId, ProductDTO productDTO);
 
     ProductDTO deleteProduct(Long productId);
@@ -1,23 +1,36 @@
 package com.hitendra.ecommerce.service;
 
 
+import com.hitendra.ecommerce.config.AppConstants;
+import com.hitendra.ecommerce.config.CacheConfig;
 import com.hitendra.ecommerce.exceptions.APIException;
 import com.hitendra.ecommerce.exceptions.ResourceNotFoundException;
-import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.ProductMapper;
 import com.hitendra.ecommerce.model.Category;
 import com.hitendra.ecommerce.model.Product;
-import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.payload.ProductCursorResponse;
 import com.hitendra.ecommerce.payload.ProductDTO;
 import com.hitendra.ecommerce.payload.ProductResponse;
-import com.hitendra.ecommerce.repository.CartRepository;
+import com.hitendra.ecommerce.payload.SuggestionDTO;
 import com.hitendra.ecommerce.repository.CategoryRepository;
 import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import com.hitendra.ecommerce.utils.AfterCommit;
 import com.hitendra.ecommerce.utils.BuildProductResponse;
-import org.modelmapper.ModelMapper;
+import com.hitendra.ecommerce.utils.KeysetCursor;
+import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -26,45 +39,48 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImplementation implements ProductService{
 
-    private final CartRepository cartRepository;
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final CartService cartService;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
     private final FileService fileService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggester productSuggester;
+    private final InventoryService inventoryService;
 
-    public ProductServiceImplementation(CartRepository cartRepository, CategoryRepository categoryRepository, ProductRepository productRepository, CartService cartService, ModelMapper modelMapper, FileService fileService) {
-        this.cartRepository = cartRepository;
+    public ProductServiceImplementation(CategoryRepository categoryRepository, ProductRepository productRepository, CartService cartService, ProductMapper productMapper, FileService fileService, ProductSearchIndex productSearchIndex, ProductSuggester productSuggester, InventoryService inventoryService) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
         this.cartService = cartService;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
         this.fileService = fileService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
+        this.inventoryService = inventoryService;
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
     public ProductDTO addProduct(ProductDTO productDTO, Long categoryId) {
 
         Category category = categoryRepository
                 .findById(categoryId)
                 .orElseThrow(()->new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        boolean isProductNotPresent = true;
-
-        List<Product> products = category.getProducts();
-
-        for (Product value : products) {
-            if (value.getProductName().equals(productDTO.getProductName())) {
-                throw new APIException("Product -> " + productDTO.getProductName() + " already present in category -> "+ category.getCategoryName());
-            }
+        if(productRepository.existsByCategory_CategoryIdAndProductName(categoryId, productDTO.getProductName())) {
+            throw new APIException("Product -> " + productDTO.getProductName() + " already present in category -> "+ category.getCategoryName());
         }
 
-        Product product = modelMapper.map(productDTO, Product.class);
+        Product product = productMapper.toEntity(productDTO);
 
         product.setImage("default.png");
 
@@ -74,11 +90,16 @@ public class ProductServiceImplementation implements ProductService{
         product.setSpecialPrice(specialPrice);
 
         Product savedProduct = productRepository.save(product);
+        AfterCommit.run(() -> {
+            productSearchIndex.index(savedProduct);
+            productSuggester.requestRebuild();
+        });
 
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        return productMapper.toDTO(savedProduct);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "{#pageNumber, #pageSize, #sortBy, #sortOrder}")
     public ProductResponse getAllProducts(
             Integer pageNumber,
             Integer pageSize,
@@ -90,27 +111,24 @@ public class ProductServiceImplementation implements ProductService{
                 : Sort.by(sortBy).descending();
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.findAll(pageDetails);
-        List<Product> products = productPage.getContent();
+        Page<ProductDTO> productPage = productRepository.findProductPage(pageDetails);
+        List<ProductDTO> productDTOS = productPage.getContent();
 
-        if(products.isEmpty())  {
+        if(productDTOS.isEmpty())  {
             throw new APIException("No Products Present at the moment");
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product ->  modelMapper.map(product, ProductDTO.class))
-                .toList();
-
         BuildProductResponse buildProductResponse = new BuildProductResponse();
 
         return buildProductResponse.build(productPage, productDTOS);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_PRODUCTS_CACHE, key = "{#categoryId, #pageNumber, #pageSize, #sortBy, #sortOrder}")
     public ProductResponse getProductsByCategories(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
-        Category category = categoryRepository
-                .findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        // findById is answered from the category region, existsById would always run a count query
+        if(categoryRepository.findById(categoryId).isEmpty())
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
 
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -118,42 +136,81 @@ public class ProductServiceImplementation implements ProductService{
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
 
-        Page<Product> productPage = productRepository.getProductsByCategory(category, pageDetails);
+        Page<ProductDTO> productPage = productRepository.findProductPageByCategoryId(categoryId, pageDetails);
 
-        List<Product> products = productPage.getContent();
+        List<ProductDTO> productDTOS = productPage.getContent();
 
-        if(products.isEmpty()) {
+        if(productDTOS.isEmpty()) {
             throw new ResourceNotFoundException("Products", "categoryId", categoryId);
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
-
         BuildProductResponse buildProductResponse = new BuildProductResponse();
 
         return buildProductResponse.build(productPage, productDTOS);
     }
 
     @Override
-    public ProductResponse getProductsByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+    public ProductCursorResponse getAllProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Specification<Product> allProducts = (root, query, criteriaBuilder) -> null;
+        return scrollProducts(allProducts, cursor, pageSize, sortBy, sortOrder);
+    }
 
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+    @Override
+    public ProductCursorResponse getProductsByCategoryByCursor(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Category category = categoryRepository
+                .findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.getProductsByProductNameLikeIgnoreCase( "%" + keyword + "%", pageDetails);
+        Specification<Product> inCategory = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("category"), category);
+        return scrollProducts(inCategory, cursor, pageSize, sortBy, sortOrder);
+    }
 
-        List<Product> products = productPage.getContent();
+    // Seeks past the cursor on (sortBy, productId), no OFFSET and no COUNT query
+    private ProductCursorResponse scrollProducts(Specification<Product> specification, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Sort sort = KeysetCursor.sort(sortBy, sortOrder, AppConstants.CURSOR_SORT_PRODUCTS_BY);
+        KeysetScrollPosition position = KeysetCursor.position(cursor, Product.class, sort);
 
-        if(products.isEmpty()) {
+        Window<Product> productWindow = productRepository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(position)
+        );
+
+        List<ProductDTO> productDTOS = productWindow.getContent().stream()
+                .map(productMapper::toDTO)
+                .toList();
+
+        return new ProductCursorResponse(productDTOS, pageSize, KeysetCursor.next(productWindow), !productWindow.hasNext());
+    }
+
+    @Override
+    public ProductResponse getProductsByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+
+        // Ranked or sorted by the index, only the requested page is loaded
+        List<Long> matchingIds = sortBy.equalsIgnoreCase(AppConstants.SORT_BY_RELEVANCE)
+                ? productSearchIndex.search(keyword)
+                : productSearchIndex.search(keyword, sortBy, sortOrder.equalsIgnoreCase("asc"));
+
+        if(matchingIds.isEmpty()) {
             throw new ResourceNotFoundException("Products", "keyword", keyword);
         }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+        int from = Math.min(pageNumber * pageSize, matchingIds.size());
+        List<Long> pageIds = matchingIds.subList(from, Math.min(from + pageSize, matchingIds.size()));
+        Map<Long, ProductDTO> productsById = productRepository.findProductDTOsByProductIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+        List<ProductDTO> orderedProducts = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
+        Page<ProductDTO> productPage = new PageImpl<>(orderedProducts, PageRequest.of(pageNumber, pageSize), matchingIds.size());
+
+        List<ProductDTO> productDTOS = productPage.getContent();
+
+        if(productDTOS.isEmpty()) {
+            throw new ResourceNotFoundException("Products", "keyword", keyword);
+        }
 
         BuildProductResponse buildProductResponse = new BuildProductResponse();
 
@@ -161,11 +218,21 @@ public class ProductServiceImplementation implements ProductService{
     }
 
     @Override
+    public List<SuggestionDTO> getSuggestions(String query, Integer limit) {
+        return productSuggester.suggest(query, Math.min(limit, AppConstants.MAX_SUGGESTION_LIMIT));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product productFromDB = productRepository
                 .findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
+        // Before anything writes the row, a hot SKU's flushes wait for this transaction from here on
+        inventoryService.stockOverwritten(productId, productDTO.getQuantity());
+
         productFromDB.setProductName(productDTO.getProductName());
         productFromDB.setDescription(productDTO.getDescription());
         productFromDB.setQuantity(productDTO.getQuantity());
@@ -176,38 +243,36 @@ public class ProductServiceImplementation implements ProductService{
         productFromDB.setSpecialPrice(newSpecialPrice);
 
         Product savedProduct = productRepository.save(productFromDB);
+        AfterCommit.run(() -> {
+            productSearchIndex.index(savedProduct);
+            productSuggester.requestRebuild();
+        });
 
-        List<Cart> carts = cartRepository.findCartByProductId(productId);
-
-        List<CartDTO> cartDTOS = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-            List<ProductDTO> products = cart.getCartItems().stream().map(p ->
-                        modelMapper.map(p.getProduct(), ProductDTO.class)
-                    ).toList();
-            cartDTO.setProducts(products);
-            return cartDTO;
-        }).toList();
+        cartService.repriceProductInCarts(productId, savedProduct.getSpecialPrice(), savedProduct.getDiscount());
 
-        cartDTOS.forEach(cart -> cartService.updateProductsInCarts(cart.getCartId(), productId));
-
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        return productMapper.toDTO(savedProduct);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
     public ProductDTO deleteProduct(Long productId) {
         Product productFromDb = productRepository
                 .findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        List<Cart> carts = cartRepository.findCartByProductId(productId);
-
-        carts.forEach(cart -> cartService.deleteProductFromCart(cart.getCardId(), productId));
+        cartService.removeProductFromCarts(productId);
 
         productRepository.delete(productFromDb);
-        return modelMapper.map(productFromDb, ProductDTO.class);
+        AfterCommit.run(() -> {
+            productSearchIndex.remove(productId);
+            productSuggester.requestRebuild();
+        });
+        return productMapper.toDTO(productFromDb);
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_CACHE, CacheConfig.CATEGORY_PRODUCTS_CACHE}, allEntries = true)
     public ProductDTO updateImage(Long productId, MultipartFile image) throws IOException {
         Product productFromDb = productRepository
                 .findById(productId)
@@ -219,7 +284,7 @@ public class ProductServiceImplementation implements ProductService{
         productFromDb.setImage(fileName);
 
         Product updatedProduct = productRepository.save(productFromDb);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        return productMapper.toDTO(updatedProduct);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.hitendra.ecommerce.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Side effects outside the database (search index, suggestions) that must only follow writes that stuck.
+public class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    // Runs straight away when there is no transaction, the caller's writes have already committed
+    public static void run(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -2,32 +2,71 @@ package com.hitendra.ecommerce.utils;
 
 import com.hitendra.ecommerce.model.User;
 import com.hitendra.ecommerce.repository.UserRepository;
+import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Component
 public class AuthUtil {
 
+    private static final String CURRENT_USER_ATTRIBUTE = AuthUtil.class.getName() + ".CURRENT_USER";
+
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
-    public AuthUtil(UserRepository userRepository) {
+    public AuthUtil(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     public String loggedInEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository
-                .findUsersByUsername(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("Username not found."));
+        if(authentication.getPrincipal() instanceof UserDetailsImplementation userDetails
+                && userDetails.getEmail() != null)
+            return userDetails.getEmail();
 
-        return user.getEmail();
+        return loggedInUser().getEmail();
     }
 
+    //Loading the user at most once per request, later calls reuse the request attribute
     public User loggedInUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(attributes != null) {
+            Object currentUser = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if(currentUser != null)
+                return (User) currentUser;
+        }
+
+        User user = loadLoggedInUser(attributes);
+
+        if(attributes != null)
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    private User loadLoggedInUser(RequestAttributes attributes) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        Object endpoint = attributes != null
+                ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        meterRegistry.counter("auth.user.queries", "endpoint", endpoint != null ? endpoint.toString() : "none")
+                .increment();
+
+        // The principal already carries the id, so prefer the primary key lookup over the username query
+        if(authentication.getPrincipal() instanceof UserDetailsImplementation userDetails
+                && userDetails.getId() != null) {
+            return userRepository
+                    .findById(userDetails.getId())
+                    .orElseThrow(() -> new UsernameNotFoundException("Username not found."));
+        }
+
         return userRepository
                 .findUsersByUsername(authentication.getName())
                 .orElseThrow(() -> new UsernameNotFoundException("Username not found."));
@@ -1,6 +1,5 @@
 package com.hitendra.ecommerce.utils;
 
-import com.hitendra.ecommerce.model.Product;
 import com.hitendra.ecommerce.payload.ProductDTO;
 import com.hitendra.ecommerce.payload.ProductResponse;
 import org.springframework.data.domain.Page;
@@ -10,7 +9,7 @@ import java.util.List;
 public class BuildProductResponse {
 
 
-    public ProductResponse build(Page<Product> productPage, List<ProductDTO> productDTOS) {
+    public ProductResponse build(Page<?> productPage, List<ProductDTO> productDTOS) {
 
         ProductResponse productResponse = new ProductResponse();
 
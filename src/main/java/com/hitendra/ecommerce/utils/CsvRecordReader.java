@@ -0,0 +1,76 @@
+package com.hitendra.ecommerce.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal RFC 4180 reader: quoted fields may hold commas, doubled quotes and line breaks.
+// Only one record is held in memory at a time.
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private int pushedBack = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    //Next record's fields, or null at the end of the input
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if(c == -1)
+            return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while(true) {
+            if(quoted) {
+                if(c == -1)
+                    throw new IOException("Unterminated quoted field");
+                if(c == '"') {
+                    int next = read();
+                    if(next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if(c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c == '\r' || c == '\n' || c == -1) {
+                if(c == '\r') {
+                    int next = read();
+                    if(next != '\n')
+                        unread(next);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if(pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
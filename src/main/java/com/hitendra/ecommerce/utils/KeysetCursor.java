@@ -0,0 +1,88 @@
+package com.hitendra.ecommerce.utils;
+
+import com.hitendra.ecommerce.exceptions.APIException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.beans.PropertyDescriptor;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Opaque continuation tokens for keyset (seek) pagination: the sort key values of the last row, url-safe base64.
+// A null value is written as the bare property name, "name=" is the empty string.
+public class KeysetCursor {
+
+    private static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    private KeysetCursor() {
+    }
+
+    // The id is appended as tie breaker so the seek predicate is always unique. The id comes first in sortable
+    public static Sort sort(String sortBy, String sortOrder, List<String> sortable) {
+        if(!sortable.contains(sortBy))
+            throw new APIException("Cursor pages can be sorted by " + String.join(", ", sortable) + ", not " + sortBy);
+
+        String idProperty = sortable.get(0);
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals(idProperty) ? sort : sort.and(Sort.by(direction, idProperty));
+    }
+
+    public static KeysetScrollPosition position(String cursor, Class<?> entityType, Sort sort) {
+        if(cursor == null || cursor.isBlank())
+            return ScrollPosition.keyset();
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for(String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                String property = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+                if(descriptor == null || keys.containsKey(property))
+                    throw new APIException("Invalid cursor");
+                if(separator < 0) {
+                    keys.put(property, null);
+                    continue;
+                }
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                keys.put(property, conversionService.convert(value, descriptor.getPropertyType()));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | ConversionException e) {
+            throw new APIException("Invalid cursor");
+        }
+
+        Set<String> sortProperties = sort.stream()
+                .map(Sort.Order::getProperty)
+                .collect(Collectors.toSet());
+        if(!keys.keySet().equals(sortProperties))
+            throw new APIException("Cursor doesn't match the requested sort");
+
+        return ScrollPosition.forward(keys);
+    }
+
+    public static String next(Window<?> window) {
+        if(window.isEmpty() || !window.hasNext())
+            return null;
+
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        String encoded = last.getKeys().entrySet().stream()
+                .map(key -> key.getValue() == null
+                        ? URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8)
+                        : URLEncoder.encode(key.getKey(), StandardCharsets.UTF_8)
+                                + "=" + URLEncoder.encode(conversionService.convert(key.getValue(), String.class), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package com.hitendra.ecommerce.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Hashed timing wheel: scheduling and cancelling are O(1) and one thread expires everything that is due.
+// New timeouts are queued and only moved into buckets by the worker, so buckets need no locking.
+// Tasks run on the worker thread and must be short.
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+
+    // Upper bound of queued timeouts moved per tick, keeps one burst from delaying expiry
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private volatile long lastTickLagNanos;
+
+    // Only touched by the worker
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.buckets = new ArrayDeque[size];
+        for(int i = 0; i < size; i++)
+            buckets[i] = new ArrayDeque<>();
+        this.mask = size - 1;
+
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    //How late the last tick started, the worker falls behind when expiry tasks are too slow
+    public long lastTickLag(TimeUnit unit) {
+        return unit.convert(lastTickLagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while(running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            long now;
+            while((now = System.nanoTime() - startNanos) < tickDeadline) {
+                LockSupport.parkNanos(tickDeadline - now);
+                if(!running)
+                    return;
+            }
+            lastTickLagNanos = now - tickDeadline;
+
+            transferPending();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        for(int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pending.poll();
+            if(timeout == null)
+                return;
+            if(timeout.isCancelled())
+                continue;
+
+            // Anything already overdue goes into the bucket being processed right now
+            timeout.deadlineTick = Math.max(timeout.deadlineNanos / tickNanos, tick);
+            buckets[(int) (timeout.deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while(iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if(timeout.isCancelled()) {
+                iterator.remove();
+            } else if(timeout.deadlineTick <= tick) {
+                iterator.remove();
+                timeout.expire();
+            }
+        }
+    }
+
+    public static final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long deadlineTick;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        //False when the task already ran
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if(!state.compareAndSet(WAITING, EXPIRED))
+                return;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Timing wheel task failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sequences for the pooled id generators (allocationSize 50). Hibernate's pooled optimizer treats each
+// sequence value as the top of a block of 50 ids, so on tables that already hold rows the sequence starts
+// 50 above the highest id and the first block begins right after it. Empty tables start at 1, like
+// Hibernate's own DDL. Written in Java because the start value depends on the data.
+public class V3__Sequence_ids extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // sequence -> table.id column
+    private static final Map<String, String[]> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("roles_seq", new String[]{"roles", "role_id"});
+        SEQUENCES.put("users_seq", new String[]{"users", "user_id"});
+        SEQUENCES.put("addresses_seq", new String[]{"addresses", "address_id"});
+        SEQUENCES.put("category_seq", new String[]{"category", "category_id"});
+        SEQUENCES.put("products_seq", new String[]{"products", "product_id"});
+        SEQUENCES.put("carts_seq", new String[]{"carts", "card_id"});
+        SEQUENCES.put("cart_items_seq", new String[]{"cart_items", "cart_item_id"});
+        SEQUENCES.put("payment_seq", new String[]{"payment", "payment_id"});
+        SEQUENCES.put("orders_seq", new String[]{"orders", "order_id"});
+        SEQUENCES.put("order_item_seq", new String[]{"order_item", "order_item_id"});
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try(Statement statement = context.getConnection().createStatement()) {
+            for(Map.Entry<String, String[]> sequence : SEQUENCES.entrySet()) {
+                String table = sequence.getValue()[0];
+                String idColumn = sequence.getValue()[1];
+
+                long maxId;
+                try(ResultSet resultSet = statement.executeQuery("select coalesce(max(" + idColumn + "), 0) from " + table)) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+
+                long start = maxId == 0 ? 1 : maxId + ALLOCATION_SIZE;
+                statement.execute("create sequence " + sequence.getKey() + " start with " + start + " increment by " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
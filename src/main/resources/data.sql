@@ -102,98 +102,102 @@ INSERT INTO category (category_name) VALUES
   ('Gift Items'),
   ('Subscription Boxes');
 
+-- Categories get their ids from category_seq, products find theirs by name
 INSERT INTO products (product_name, description, price, discount, special_price, quantity, category_id, image)
-VALUES
-('Macbook M2 Pro', 'Macbook with M2 chip', 1099.99, 10, 989.99, 500, 2, 'macbook.png'),
-('iPhone 15 Pro', 'Latest Apple iPhone', 999.99, 5, 949.99, 1000, 3, 'iphone.png'),
-('Samsung Galaxy S24', 'Flagship Samsung smartphone', 899.99, 7, 836.99, 900, 3, 'galaxy_s24.png'),
-('iPad Air', 'Apple tablet with M1 chip', 599.99, 8, 551.99, 400, 4, 'ipad_air.png'),
-('Sony WH-1000XM5', 'Noise cancelling headphones', 349.99, 15, 297.49, 300, 5, 'sony_wh1000xm5.png'),
-('Apple Watch Series 9', 'Latest Apple smartwatch', 449.99, 5, 427.49, 150, 6, 'apple_watch.png'),
-('Canon EOS R10', 'Mirrorless camera', 999.99, 10, 899.99, 100, 7, 'canon_eosr10.png'),
-('LG OLED CX', '55 inch OLED TV', 1399.99, 20, 1119.99, 50, 8, 'lg_oled_cx.png'),
-('Dell UltraSharp 27', '4K Monitor', 499.99, 12, 439.99, 200, 9, 'dell_ultrasharp.png'),
-('HP LaserJet Pro', 'Wireless monochrome printer', 199.99, 15, 169.99, 120, 10, 'hp_laserjet.png'),
-('TP-Link Archer AX6000', 'Wi-Fi 6 router', 349.99, 10, 314.99, 80, 11, 'tplink_ax6000.png'),
-('Google Nest Hub', 'Smart home display', 99.99, 10, 89.99, 60, 12, 'nest_hub.png'),
-('PlayStation 5', 'Sony gaming console', 499.99, 0, 499.99, 1000, 13, 'ps5.png'),
-('Xbox Series X', 'Microsoft gaming console', 499.99, 0, 499.99, 950, 13, 'xbox_series_x.png'),
-('The Legend of Zelda', 'Switch video game', 59.99, 5, 56.99, 500, 14, 'zelda.png'),
-('JBL Bar 9.1', 'Soundbar with subwoofer', 799.99, 20, 639.99, 70, 15, 'jbl_bar91.png'),
-('Samsung Refrigerator', 'Double door fridge', 999.99, 15, 849.99, 40, 18, 'samsung_fridge.png'),
-('Bosch Washing Machine', 'Front load washer', 749.99, 10, 674.99, 35, 19, 'bosch_washer.png'),
-('LG Dual Inverter AC', '1.5 ton split AC', 599.99, 18, 491.99, 30, 20, 'lg_ac.png'),
-('Dyson Hot+Cool', 'Heater and air purifier', 649.99, 15, 552.49, 25, 21, 'dyson_hotcool.png'),
-('Fitbit Charge 5', 'Fitness tracker', 149.99, 10, 134.99, 200, 22, 'fitbit_charge5.png'),
-('Garmin Forerunner 245', 'GPS running watch', 299.99, 12, 263.99, 80, 22, 'garmin_245.png'),
-('Coleman Sundome Tent', '4-person camping tent', 99.99, 20, 79.99, 100, 23, 'coleman_tent.png'),
-('Wilson Tennis Racket', 'Pro tennis racket', 129.99, 10, 116.99, 150, 24, 'wilson_racket.png'),
-('Giant Escape 3', 'Hybrid bicycle', 499.99, 8, 459.99, 50, 25, 'giant_escape3.png'),
-('Lego Classic Set', 'Creative building blocks', 49.99, 15, 42.49, 300, 26, 'lego_classic.png'),
-('DJI Mini 3 Pro', 'Foldable drone', 759.99, 10, 683.99, 40, 27, 'dji_mini3pro.png'),
-('Bosch Car Battery', '12V automotive battery', 119.99, 10, 107.99, 90, 28, 'bosch_battery.png'),
-('HJC CL-17 Helmet', 'Full face helmet', 139.99, 15, 118.99, 60, 29, 'hjc_cl17.png'),
-('Atomic Habits', 'Self-help book by James Clear', 19.99, 20, 15.99, 200, 30, 'atomic_habits.png'),
-('Moleskine Notebook', 'Classic ruled notebook', 24.99, 10, 22.49, 150, 31, 'moleskine.png'),
-('HP OfficeJet Paper', '500 sheets A4 paper', 9.99, 10, 8.99, 300, 32, 'officejet_paper.png'),
-('Ikea MALM Desk', 'Modern office desk', 199.99, 5, 189.99, 40, 33, 'ikea_malm.png'),
-('Philips Hue Bulb', 'Smart LED bulb', 49.99, 10, 44.99, 100, 34, 'hue_bulb.png'),
-('Sleepwell Mattress', 'Queen size mattress', 299.99, 15, 254.99, 30, 35, 'sleepwell.png'),
-('Cannon Bath Towels', 'Set of 4 towels', 39.99, 20, 31.99, 80, 36, 'cannon_towels.png'),
-('Fiskars Pruner', 'Garden hand pruner', 24.99, 15, 21.24, 120, 37, 'fiskars_pruner.png'),
-('Pedigree Dog Food', 'Adult dry dog food', 49.99, 10, 44.99, 100, 38, 'pedigree_dogfood.png'),
-('Olay Regenerist', 'Anti-aging cream', 34.99, 10, 31.49, 120, 39, 'olay_regenerist.png'),
-('Neutrogena Face Wash', 'Oil-free cleanser', 7.99, 15, 6.79, 200, 40, 'neutrogena.png'),
-('L\Oreal Shampoo', 'Total Repair 5', 5.99, 10, 5.39, 180, 41, 'loreal_shampoo.png'),
-('Maybelline Mascara', 'Volumizing mascara', 9.99, 20, 7.99, 150, 43, 'maybelline_mascara.png'),
-('Versace Eros', 'Mens fragrance', 69.99, 10, 62.99, 60, 44, 'versace_eros.png'),
-('Levis 501 Jeans', 'Classic fit jeans', 59.99, 15, 50.99, 90, 45, 'levis_501.png'),
-('Zara Summer Dress', 'Floral print dress', 39.99, 10, 35.99, 80, 46, 'zara_dress.png'),
-('Nike Kids Sneakers', 'Running shoes for kids', 49.99, 12, 43.99, 110, 47, 'nike_kids.png'),
-('Adidas Superstar', 'Mens sneakers', 89.99, 10, 80.99, 100, 48, 'adidas_superstar.png'),
-('Fossil Gen', 'Smartwatch for men', 299.99, 15, 254.99, 70, 49, 'fossil_gen6.png'),
-('Ray-Ban Aviator', 'Classic sunglasses', 129.99, 12, 114.39, 75, 51, 'rayban_aviator.png'),
-('Samsonite Spinner', 'four-wheel luggage', 199.99, 18, 163.99, 60, 52, 'samsonite_spinner.png'),
-('Pampers Diapers', 'Pack of 60' , 29.99, 10, 26.99, 200, 54, 'pampers.png'),
-('Kelloggs Corn Flakes', 'Breakfast cereal', 4.99, 10, 4.49, 150, 55, 'kelloggs.png'),
-('Lays Classic', 'Potato chips', 2.99, 5, 2.84, 250, 56, 'lays.png'),
-('Coca Cola 2L', 'Soft drink bottle', 1.99, 5, 1.89, 300, 57, 'cocacola.png'),
-('Centrum Multivitamin', 'Daily supplement', 19.99, 15, 16.99, 120, 59, 'centrum.png'),
-('Dettol Handwash', 'Liquid hand soap', 3.99, 10, 3.59, 160, 61, 'dettol.png'),
-('Gillette Fusion', 'Mens razor', 9.99, 10, 8.99, 130, 62, 'gillette.png'),
-('Crayola Crayons', 'Box of 24 colors', 4.99, 15, 4.24, 140, 63, 'crayola.png'),
-('Yamaha Acoustic Guitar', 'six-string guitar', 149.99, 10, 134.99, 80, 65, 'yamaha_guitar.png'),
-('Winsor & Newton Watercolors', 'twelve color set', 19.99, 10, 17.99, 100, 66, 'winsor_newton.png'),
-('Funko Pop! Batman', 'Collectible figure', 14.99, 10, 13.49, 90, 67, 'funko_batman.png'),
-('Vintage Pocket Watch', 'Antique mechanical watch', 99.99, 20, 79.99, 30, 68, 'vintage_watch.png'),
-('Bosch Cordless Drill', 'DIY electric drill', 79.99, 15, 67.99, 50, 70, 'bosch_drill.png'),
-('Makita Circular Saw', 'Electric saw', 129.99, 10, 116.99, 40, 71, 'makita_saw.png'),
-('Holcim Cement', '50kg construction cement', 7.99, 10, 7.19, 200, 72, 'holcim_cement.png'),
-('Honda Generator', 'Portable generator', 499.99, 12, 439.99, 10, 73, 'honda_generator.png'),
-('3M Safety Glasses', 'Protective eyewear', 9.99, 20, 7.99, 100, 74, '3m_glasses.png'),
-('Microsoft Office 2021', 'Productivity software', 149.99, 10, 134.99, 300, 75, 'office2021.png'),
-('Intel Core i9', '12th gen CPU', 599.99, 8, 551.99, 60, 76, 'intel_i9.png'),
-('Samsung 970 EVO', '1TB SSD storage', 109.99, 10, 98.99, 80, 77, 'samsung_970evo.png'),
-('SanDisk Ultra 128GB', 'MicroSD memory card', 19.99, 15, 16.99, 200, 78, 'sandisk_ultra.png'),
-('Anker USB-C Cable', '1m fast charging cable', 7.99, 10, 7.19, 180, 79, 'anker_cable.png'),
-('Apple 20W Charger', 'USB-C power adapter', 19.99, 10, 17.99, 150, 80, 'apple_charger.png'),
-('Mi Power Bank 3i', '10000mAh portable charger', 24.99, 15, 21.24, 120, 81, 'mi_powerbank.png'),
-('Spigen Rugged Armor', 'Phone case for iPhone', 14.99, 10, 13.49, 110, 82, 'spigen_case.png'),
-('Logitech MX Master 3', 'Wireless mouse', 99.99, 10, 89.99, 90, 83, 'mx_master3.png'),
-('Apple Magic Keyboard', 'Bluetooth keyboard', 99.99, 10, 89.99, 80, 84, 'magic_keyboard.png'),
-('Samsung Tab S9 Cover', 'Protective cover', 29.99, 10, 26.99, 70, 85, 'tab_s9_cover.png'),
-('Canon Camera Bag', 'DSLR bag', 39.99, 10, 35.99, 60, 86, 'canon_bag.png'),
-('Belkin Watch Strap', 'Smartwatch silicone band', 14.99, 10, 13.49, 100, 87, 'belkin_strap.png'),
-('Sony TV Wall Mount', 'Adjustable TV mount', 49.99, 15, 42.49, 80, 88, 'sony_wallmount.png'),
-('HP 305A Toner', 'Printer toner cartridge', 69.99, 10, 62.99, 60, 89, 'hp_305a.png'),
-('Netgear Antenna', 'Router signal booster', 19.99, 10, 17.99, 70, 90, 'netgear_antenna.png'),
-('Urban Ladder Sofa', '3-seater living room sofa', 599.99, 15, 509.99, 20, 91, 'urban_sofa.png'),
-('WallMantra Canvas Art', 'Abstract wall art', 69.99, 10, 62.99, 60, 92, 'wallmantra_canvas.png'),
-('Seiko Wall Clock', 'Silent sweep clock', 39.99, 12, 35.19, 70, 93, 'seiko_clock.png'),
-('Home Centre Mirror', 'Decorative wall mirror', 59.99, 10, 53.99, 60, 94, 'home_mirror.png'),
-('Ikea Rug', 'Soft woolen rug', 79.99, 10, 71.99, 50, 95, 'ikea_rug.png'),
-('Fabindia Curtains', 'Cotton window curtains', 49.99, 10, 44.99, 60, 96, 'fabindia_curtains.png'),
-('Chumbak Cushion', 'Printed cushion cover', 14.99, 10, 13.49, 80, 97, 'chumbak_cushion.png'),
-('Bath & Body Works Candle', '3-wick scented candle', 24.99, 10, 22.49, 90, 98, 'bbw_candle.png'),
-('Ceramic Flower Vase', 'Handcrafted vase', 19.99, 15, 16.99, 70, 99, 'ceramic_vase.png'),
-('Ugaoo Planter', 'Indoor plant pot', 12.99, 10, 11.69, 60, 100, 'ugaoo_planter.png');
\ No newline at end of file
+SELECT p.product_name, p.description, p.price, p.discount, p.special_price, p.quantity, c.category_id, p.image
+FROM (VALUES
+('Macbook M2 Pro', 'Macbook with M2 chip', 1099.99, 10, 989.99, 500, 'Laptops', 'macbook.png'),
+('iPhone 15 Pro', 'Latest Apple iPhone', 999.99, 5, 949.99, 1000, 'Smartphones', 'iphone.png'),
+('Samsung Galaxy S24', 'Flagship Samsung smartphone', 899.99, 7, 836.99, 900, 'Smartphones', 'galaxy_s24.png'),
+('iPad Air', 'Apple tablet with M1 chip', 599.99, 8, 551.99, 400, 'Tablets', 'ipad_air.png'),
+('Sony WH-1000XM5', 'Noise cancelling headphones', 349.99, 15, 297.49, 300, 'Headphones', 'sony_wh1000xm5.png'),
+('Apple Watch Series 9', 'Latest Apple smartwatch', 449.99, 5, 427.49, 150, 'Wearables', 'apple_watch.png'),
+('Canon EOS R10', 'Mirrorless camera', 999.99, 10, 899.99, 100, 'Cameras', 'canon_eosr10.png'),
+('LG OLED CX', '55 inch OLED TV', 1399.99, 20, 1119.99, 50, 'Televisions', 'lg_oled_cx.png'),
+('Dell UltraSharp 27', '4K Monitor', 499.99, 12, 439.99, 200, 'Monitors', 'dell_ultrasharp.png'),
+('HP LaserJet Pro', 'Wireless monochrome printer', 199.99, 15, 169.99, 120, 'Printers', 'hp_laserjet.png'),
+('TP-Link Archer AX6000', 'Wi-Fi 6 router', 349.99, 10, 314.99, 80, 'Networking', 'tplink_ax6000.png'),
+('Google Nest Hub', 'Smart home display', 99.99, 10, 89.99, 60, 'Smart Home', 'nest_hub.png'),
+('PlayStation 5', 'Sony gaming console', 499.99, 0, 499.99, 1000, 'Gaming Consoles', 'ps5.png'),
+('Xbox Series X', 'Microsoft gaming console', 499.99, 0, 499.99, 950, 'Gaming Consoles', 'xbox_series_x.png'),
+('The Legend of Zelda', 'Switch video game', 59.99, 5, 56.99, 500, 'Video Games', 'zelda.png'),
+('JBL Bar 9.1', 'Soundbar with subwoofer', 799.99, 20, 639.99, 70, 'Audio Systems', 'jbl_bar91.png'),
+('Samsung Refrigerator', 'Double door fridge', 999.99, 15, 849.99, 40, 'Refrigerators', 'samsung_fridge.png'),
+('Bosch Washing Machine', 'Front load washer', 749.99, 10, 674.99, 35, 'Washing Machines', 'bosch_washer.png'),
+('LG Dual Inverter AC', '1.5 ton split AC', 599.99, 18, 491.99, 30, 'Air Conditioners', 'lg_ac.png'),
+('Dyson Hot+Cool', 'Heater and air purifier', 649.99, 15, 552.49, 25, 'Heaters', 'dyson_hotcool.png'),
+('Fitbit Charge 5', 'Fitness tracker', 149.99, 10, 134.99, 200, 'Fitness Equipment', 'fitbit_charge5.png'),
+('Garmin Forerunner 245', 'GPS running watch', 299.99, 12, 263.99, 80, 'Fitness Equipment', 'garmin_245.png'),
+('Coleman Sundome Tent', '4-person camping tent', 99.99, 20, 79.99, 100, 'Outdoor Gear', 'coleman_tent.png'),
+('Wilson Tennis Racket', 'Pro tennis racket', 129.99, 10, 116.99, 150, 'Sports Equipment', 'wilson_racket.png'),
+('Giant Escape 3', 'Hybrid bicycle', 499.99, 8, 459.99, 50, 'Bicycles', 'giant_escape3.png'),
+('Lego Classic Set', 'Creative building blocks', 49.99, 15, 42.49, 300, 'Toys', 'lego_classic.png'),
+('DJI Mini 3 Pro', 'Foldable drone', 759.99, 10, 683.99, 40, 'Drones', 'dji_mini3pro.png'),
+('Bosch Car Battery', '12V automotive battery', 119.99, 10, 107.99, 90, 'Car Accessories', 'bosch_battery.png'),
+('HJC CL-17 Helmet', 'Full face helmet', 139.99, 15, 118.99, 60, 'Motorcycle Accessories', 'hjc_cl17.png'),
+('Atomic Habits', 'Self-help book by James Clear', 19.99, 20, 15.99, 200, 'Books', 'atomic_habits.png'),
+('Moleskine Notebook', 'Classic ruled notebook', 24.99, 10, 22.49, 150, 'Stationery', 'moleskine.png'),
+('HP OfficeJet Paper', '500 sheets A4 paper', 9.99, 10, 8.99, 300, 'Office Supplies', 'officejet_paper.png'),
+('Ikea MALM Desk', 'Modern office desk', 199.99, 5, 189.99, 40, 'Furniture', 'ikea_malm.png'),
+('Philips Hue Bulb', 'Smart LED bulb', 49.99, 10, 44.99, 100, 'Lighting', 'hue_bulb.png'),
+('Sleepwell Mattress', 'Queen size mattress', 299.99, 15, 254.99, 30, 'Bedding', 'sleepwell.png'),
+('Cannon Bath Towels', 'Set of 4 towels', 39.99, 20, 31.99, 80, 'Bath', 'cannon_towels.png'),
+('Fiskars Pruner', 'Garden hand pruner', 24.99, 15, 21.24, 120, 'Gardening', 'fiskars_pruner.png'),
+('Pedigree Dog Food', 'Adult dry dog food', 49.99, 10, 44.99, 100, 'Pet Supplies', 'pedigree_dogfood.png'),
+('Olay Regenerist', 'Anti-aging cream', 34.99, 10, 31.49, 120, 'Beauty', 'olay_regenerist.png'),
+('Neutrogena Face Wash', 'Oil-free cleanser', 7.99, 15, 6.79, 200, 'Skincare', 'neutrogena.png'),
+('L\Oreal Shampoo', 'Total Repair 5', 5.99, 10, 5.39, 180, 'Haircare', 'loreal_shampoo.png'),
+('Maybelline Mascara', 'Volumizing mascara', 9.99, 20, 7.99, 150, 'Fragrances', 'maybelline_mascara.png'),
+('Versace Eros', 'Mens fragrance', 69.99, 10, 62.99, 60, 'Mens Fashion', 'versace_eros.png'),
+('Levis 501 Jeans', 'Classic fit jeans', 59.99, 15, 50.99, 90, 'Womens Fashion', 'levis_501.png'),
+('Zara Summer Dress', 'Floral print dress', 39.99, 10, 35.99, 80, 'Kids Fashion', 'zara_dress.png'),
+('Nike Kids Sneakers', 'Running shoes for kids', 49.99, 12, 43.99, 110, 'Shoes', 'nike_kids.png'),
+('Adidas Superstar', 'Mens sneakers', 89.99, 10, 80.99, 100, 'Bags', 'adidas_superstar.png'),
+('Fossil Gen', 'Smartwatch for men', 299.99, 15, 254.99, 70, 'Watches', 'fossil_gen6.png'),
+('Ray-Ban Aviator', 'Classic sunglasses', 129.99, 12, 114.39, 75, 'Sunglasses', 'rayban_aviator.png'),
+('Samsonite Spinner', 'four-wheel luggage', 199.99, 18, 163.99, 60, 'Travel Accessories', 'samsonite_spinner.png'),
+('Pampers Diapers', 'Pack of 60' , 29.99, 10, 26.99, 200, 'Baby Products', 'pampers.png'),
+('Kelloggs Corn Flakes', 'Breakfast cereal', 4.99, 10, 4.49, 150, 'Groceries', 'kelloggs.png'),
+('Lays Classic', 'Potato chips', 2.99, 5, 2.84, 250, 'Snacks', 'lays.png'),
+('Coca Cola 2L', 'Soft drink bottle', 1.99, 5, 1.89, 300, 'Beverages', 'cocacola.png'),
+('Centrum Multivitamin', 'Daily supplement', 19.99, 15, 16.99, 120, 'Supplements', 'centrum.png'),
+('Dettol Handwash', 'Liquid hand soap', 3.99, 10, 3.59, 160, 'Medical Devices', 'dettol.png'),
+('Gillette Fusion', 'Mens razor', 9.99, 10, 8.99, 130, 'Cleaning Supplies', 'gillette.png'),
+('Crayola Crayons', 'Box of 24 colors', 4.99, 15, 4.24, 140, 'Personal Care', 'crayola.png'),
+('Yamaha Acoustic Guitar', 'six-string guitar', 149.99, 10, 134.99, 80, 'Musical Instruments', 'yamaha_guitar.png'),
+('Winsor & Newton Watercolors', 'twelve color set', 19.99, 10, 17.99, 100, 'Art Supplies', 'winsor_newton.png'),
+('Funko Pop! Batman', 'Collectible figure', 14.99, 10, 13.49, 90, 'Collectibles', 'funko_batman.png'),
+('Vintage Pocket Watch', 'Antique mechanical watch', 99.99, 20, 79.99, 30, 'Antiques', 'vintage_watch.png'),
+('Bosch Cordless Drill', 'DIY electric drill', 79.99, 15, 67.99, 50, 'DIY Tools', 'bosch_drill.png'),
+('Makita Circular Saw', 'Electric saw', 129.99, 10, 116.99, 40, 'Construction Materials', 'makita_saw.png'),
+('Holcim Cement', '50kg construction cement', 7.99, 10, 7.19, 200, 'Industrial Equipment', 'holcim_cement.png'),
+('Honda Generator', 'Portable generator', 499.99, 12, 439.99, 10, 'Safety Equipment', 'honda_generator.png'),
+('3M Safety Glasses', 'Protective eyewear', 9.99, 20, 7.99, 100, 'Software', '3m_glasses.png'),
+('Microsoft Office 2021', 'Productivity software', 149.99, 10, 134.99, 300, 'PC Components', 'office2021.png'),
+('Intel Core i9', '12th gen CPU', 599.99, 8, 551.99, 60, 'Storage Devices', 'intel_i9.png'),
+('Samsung 970 EVO', '1TB SSD storage', 109.99, 10, 98.99, 80, 'Memory Cards', 'samsung_970evo.png'),
+('SanDisk Ultra 128GB', 'MicroSD memory card', 19.99, 15, 16.99, 200, 'Cables & Adapters', 'sandisk_ultra.png'),
+('Anker USB-C Cable', '1m fast charging cable', 7.99, 10, 7.19, 180, 'Chargers', 'anker_cable.png'),
+('Apple 20W Charger', 'USB-C power adapter', 19.99, 10, 17.99, 150, 'Power Banks', 'apple_charger.png'),
+('Mi Power Bank 3i', '10000mAh portable charger', 24.99, 15, 21.24, 120, 'Mobile Accessories', 'mi_powerbank.png'),
+('Spigen Rugged Armor', 'Phone case for iPhone', 14.99, 10, 13.49, 110, 'Laptop Accessories', 'spigen_case.png'),
+('Logitech MX Master 3', 'Wireless mouse', 99.99, 10, 89.99, 90, 'Tablet Accessories', 'mx_master3.png'),
+('Apple Magic Keyboard', 'Bluetooth keyboard', 99.99, 10, 89.99, 80, 'Camera Accessories', 'magic_keyboard.png'),
+('Samsung Tab S9 Cover', 'Protective cover', 29.99, 10, 26.99, 70, 'Smartwatch Accessories', 'tab_s9_cover.png'),
+('Canon Camera Bag', 'DSLR bag', 39.99, 10, 35.99, 60, 'TV Accessories', 'canon_bag.png'),
+('Belkin Watch Strap', 'Smartwatch silicone band', 14.99, 10, 13.49, 100, 'Printer Supplies', 'belkin_strap.png'),
+('Sony TV Wall Mount', 'Adjustable TV mount', 49.99, 15, 42.49, 80, 'Router Accessories', 'sony_wallmount.png'),
+('HP 305A Toner', 'Printer toner cartridge', 69.99, 10, 62.99, 60, 'Home Decor', 'hp_305a.png'),
+('Netgear Antenna', 'Router signal booster', 19.99, 10, 17.99, 70, 'Wall Art', 'netgear_antenna.png'),
+('Urban Ladder Sofa', '3-seater living room sofa', 599.99, 15, 509.99, 20, 'Clocks', 'urban_sofa.png'),
+('WallMantra Canvas Art', 'Abstract wall art', 69.99, 10, 62.99, 60, 'Mirrors', 'wallmantra_canvas.png'),
+('Seiko Wall Clock', 'Silent sweep clock', 39.99, 12, 35.19, 70, 'Rugs', 'seiko_clock.png'),
+('Home Centre Mirror', 'Decorative wall mirror', 59.99, 10, 53.99, 60, 'Curtains', 'home_mirror.png'),
+('Ikea Rug', 'Soft woolen rug', 79.99, 10, 71.99, 50, 'Cushions', 'ikea_rug.png'),
+('Fabindia Curtains', 'Cotton window curtains', 49.99, 10, 44.99, 60, 'Candles', 'fabindia_curtains.png'),
+('Chumbak Cushion', 'Printed cushion cover', 14.99, 10, 13.49, 80, 'Vases', 'chumbak_cushion.png'),
+('Bath & Body Works Candle', '3-wick scented candle', 24.99, 10, 22.49, 90, 'Planters', 'bbw_candle.png'),
+('Ceramic Flower Vase', 'Handcrafted vase', 19.99, 15, 16.99, 70, 'Seasonal Decor', 'ceramic_vase.png'),
+('Ugaoo Planter', 'Indoor plant pot', 12.99, 10, 11.69, 60, 'Party Supplies', 'ugaoo_planter.png')
+) AS p (product_name, description, price, discount, special_price, quantity, category_name, image)
+JOIN category c ON c.category_name = p.category_name;
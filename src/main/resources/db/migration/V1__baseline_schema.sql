@@ -0,0 +1,97 @@
+-- Schema as Hibernate generated it from the entities before migrations took over.
+-- Databases created that way are baselined at this version instead of running it.
+
+create table roles (
+    role_id bigint generated by default as identity primary key,
+    role_name varchar(20)
+);
+
+create table users (
+    user_id bigint generated by default as identity primary key,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table user_role (
+    user_id bigint not null references users (user_id),
+    role_id bigint not null references roles (role_id),
+    primary key (user_id, role_id)
+);
+
+create table addresses (
+    address_id bigint generated by default as identity primary key,
+    street varchar(255) not null,
+    building_name varchar(255) not null,
+    city varchar(255) not null,
+    state varchar(255) not null,
+    country varchar(255) not null,
+    pincode varchar(255) not null,
+    user_id bigint references users (user_id)
+);
+
+create table category (
+    category_id bigint generated by default as identity primary key,
+    category_name varchar(255) not null,
+    constraint uk_category_name unique (category_name)
+);
+
+create table products (
+    product_id bigint generated by default as identity primary key,
+    product_name varchar(255) not null,
+    image varchar(255),
+    description varchar(255) not null,
+    quantity integer,
+    price double precision not null,
+    discount double precision not null,
+    special_price double precision not null,
+    category_id bigint references category (category_id),
+    seller_id bigint references users (user_id),
+    constraint uk_products_category_name unique (category_id, product_name)
+);
+
+create table carts (
+    card_id bigint generated by default as identity primary key,
+    user_id bigint references users (user_id),
+    total_price double precision
+);
+
+create table cart_items (
+    cart_item_id bigint generated by default as identity primary key,
+    card_id bigint references carts (card_id),
+    product_id bigint references products (product_id),
+    quantity integer,
+    discount double precision not null,
+    product_price double precision not null
+);
+
+create table payment (
+    payment_id bigint generated by default as identity primary key,
+    payment_method varchar(255) not null,
+    pg_gateway varchar(255),
+    pg_payment_id varchar(255),
+    pg_status varchar(255),
+    pg_response_message varchar(255),
+    pg_name varchar(255)
+);
+
+create table orders (
+    order_id bigint generated by default as identity primary key,
+    email varchar(255) not null,
+    order_date date,
+    payment_id bigint references payment (payment_id),
+    order_price double precision,
+    order_status varchar(255),
+    address_id bigint references addresses (address_id)
+);
+
+create table order_item (
+    order_item_id bigint generated by default as identity primary key,
+    product_id bigint references products (product_id),
+    order_id bigint references orders (order_id),
+    quantity integer,
+    discount double precision,
+    ordered_product_price double precision
+);
@@ -0,0 +1,22 @@
+-- Indexes behind the repository queries. Foreign keys are not indexed by the database on their own.
+
+-- CartRepository: carts are always looked up through their user
+create index if not exists idx_carts_user_id on carts (user_id);
+
+-- CartItemRepository: lines of one cart, and the (cart, product) pair
+create index if not exists idx_cart_items_card_id_product_id on cart_items (card_id, product_id);
+
+-- Repricing and product removal start from the product and reach the carts holding it
+create index if not exists idx_cart_items_product_id_card_id on cart_items (product_id, card_id);
+
+-- Catalog pages and duplicate checks per category; the unique constraint leads with category_id
+create unique index if not exists uk_products_category_name on products (category_id, product_name);
+
+create unique index if not exists uk_category_name on category (category_name);
+
+-- Order history per user and the lines of one order
+create index if not exists idx_orders_email on orders (email);
+create index if not exists idx_order_item_order_id on order_item (order_id);
+
+-- AddressRepository.findAddressByUser / findAddressByUserAndAddressId
+create index if not exists idx_addresses_user_id on addresses (user_id);
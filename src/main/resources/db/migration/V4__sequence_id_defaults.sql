@@ -0,0 +1,33 @@
+-- Ids come from the *_seq sequences alone. The identity defaults were a second, independent generator that
+-- raw inserts drew from, colliding with the blocks of 50 Hibernate takes from the sequences. A raw insert
+-- now consumes a sequence value of its own, which never falls inside a block handed to Hibernate.
+
+alter table roles alter column role_id drop identity;
+alter table roles alter column role_id set default nextval('roles_seq');
+
+alter table users alter column user_id drop identity;
+alter table users alter column user_id set default nextval('users_seq');
+
+alter table addresses alter column address_id drop identity;
+alter table addresses alter column address_id set default nextval('addresses_seq');
+
+alter table category alter column category_id drop identity;
+alter table category alter column category_id set default nextval('category_seq');
+
+alter table products alter column product_id drop identity;
+alter table products alter column product_id set default nextval('products_seq');
+
+alter table carts alter column card_id drop identity;
+alter table carts alter column card_id set default nextval('carts_seq');
+
+alter table cart_items alter column cart_item_id drop identity;
+alter table cart_items alter column cart_item_id set default nextval('cart_items_seq');
+
+alter table payment alter column payment_id drop identity;
+alter table payment alter column payment_id set default nextval('payment_seq');
+
+alter table orders alter column order_id drop identity;
+alter table orders alter column order_id set default nextval('orders_seq');
+
+alter table order_item alter column order_item_id drop identity;
+alter table order_item alter column order_item_id set default nextval('order_item_seq');
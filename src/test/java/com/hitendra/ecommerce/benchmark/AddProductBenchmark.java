@@ -0,0 +1,105 @@
+package com.hitendra.ecommerce.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+// addProduct latency in a category holding 100k products: loading every product of the category
+// to compare names vs the indexed existence query. Each insert is rolled back so the category size stays fixed.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.AddProductBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddProductBenchmark {
+
+    private static final long CATEGORY_ID = 1L;
+    private static final String INSERT_PRODUCT =
+            "insert into products (product_name, description, quantity, price, special_price, category_id) values (?, ?, 1, 10, 10, ?)";
+
+    @Param("100000")
+    public int productsInCategory;
+
+    private final AtomicLong names = new AtomicLong();
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table products (product_id bigint generated by default as identity primary key, " +
+                "product_name varchar(255), description varchar(255), quantity int, price double, special_price double, category_id bigint, " +
+                "constraint uk_products_category_name unique (category_id, product_name))");
+
+        List<Object[]> rows = new ArrayList<>(productsInCategory);
+        for(int i = 0; i < productsInCategory; i++)
+            rows.add(new Object[]{"Product " + i, "Description " + i, CATEGORY_ID});
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+    }
+
+    // What addProduct did before: hydrate category.getProducts() and compare every name
+    @Benchmark
+    public boolean scanCategory() {
+        return addProduct(name -> {
+            List<String> productNames = jdbcTemplate.queryForList(
+                    "select product_name from products where category_id = ?", String.class, CATEGORY_ID);
+            for(String productName : productNames)
+                if(productName.equals(name))
+                    return true;
+            return false;
+        });
+    }
+
+    @Benchmark
+    public boolean existsQuery() {
+        return addProduct(name -> !jdbcTemplate.queryForList(
+                "select 1 from products where category_id = ? and product_name = ? fetch first 1 rows only",
+                Integer.class, CATEGORY_ID, name).isEmpty());
+    }
+
+    private boolean addProduct(Predicate<String> duplicateCheck) {
+        String name = "New product " + names.incrementAndGet();
+        return transactionTemplate.execute(status -> {
+            boolean duplicate = duplicateCheck.test(name);
+            if(!duplicate)
+                jdbcTemplate.update(INSERT_PRODUCT, name, "Benchmark", CATEGORY_ID);
+            status.setRollbackOnly();
+            return duplicate;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AddProductBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.hitendra.ecommerce.benchmark;
+
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.model.CartItem;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latency and allocation of one 50-item catalog page on H2 while every product sits in cartCount carts.
+// entityPage is the entity + mapper path, projectionPage the DTO query the catalog endpoints use.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.CatalogPageBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogPageBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"0", "100", "1000"})
+    public int cartCount;
+
+    private EmbeddedDatabase database;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private Pageable page;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setGenerateDdl(true);
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(database);
+        entityManagerFactory.setPackagesToScan("com.hitendra.ecommerce.model");
+        entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
+        entityManagerFactory.afterPropertiesSet();
+
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        productRepository = new JpaRepositoryFactory(entityManager).getRepository(ProductRepository.class);
+        productMapper = new ProductMapper();
+        page = PageRequest.of(0, PAGE_SIZE, Sort.by("productId"));
+
+        seed();
+    }
+
+    private void seed() {
+        entityManager.getTransaction().begin();
+
+        List<Product> products = new ArrayList<>(PAGE_SIZE);
+        for(int i = 0; i < PAGE_SIZE; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setDescription("Description of product " + i);
+            product.setQuantity(1_000_000);
+            product.setPrice(100);
+            product.setSpecialPrice(100);
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        for(int c = 0; c < cartCount; c++) {
+            Cart cart = new Cart();
+            entityManager.persist(cart);
+            for(Product product : products)
+                entityManager.persist(new CartItem(null, cart, product, 1, 0, product.getSpecialPrice()));
+
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+
+    @Benchmark
+    public List<ProductDTO> entityPage() {
+        entityManager.clear();
+        return productRepository.findAll(page).getContent().stream()
+                .map(productMapper::toDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> projectionPage() {
+        entityManager.clear();
+        return productRepository.findProductPage(page).getContent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.destroy();
+        database.shutdown();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogPageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
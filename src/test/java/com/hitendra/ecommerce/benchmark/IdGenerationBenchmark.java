@@ -0,0 +1,141 @@
+package com.hitendra.ecommerce.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+// Statements sent for a 30 line checkout and for creating 1000 products, replaying what Hibernate does
+// with IDENTITY ids (one insert plus key fetch per row) vs pooled sequences (one nextval per 50 rows,
+// inserts grouped into JDBC batches of 50). The statements counter shows up next to the timings.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.IdGenerationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int CHECKOUT_LINES = 30;
+    private static final int BULK_PRODUCTS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    private EmbeddedDatabase database;
+    private Connection connection;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        connection = database.getConnection();
+        try(Statement statement = connection.createStatement()) {
+            for(String table : new String[]{"payment", "orders", "order_item", "products"}) {
+                statement.execute("create table " + table + "_identity (id bigint generated by default as identity primary key, payload varchar(64))");
+                statement.execute("create table " + table + "_pooled (id bigint primary key, payload varchar(64))");
+                statement.execute("create sequence " + table + "_seq start with 1 increment by " + BATCH_SIZE);
+            }
+        }
+    }
+
+    @Benchmark
+    public long checkoutIdentity(Statements counter) throws SQLException {
+        long id = insertIdentity("payment", counter);
+        id += insertIdentity("orders", counter);
+        for(int i = 0; i < CHECKOUT_LINES; i++)
+            id += insertIdentity("order_item", counter);
+        return id;
+    }
+
+    @Benchmark
+    public long checkoutPooledSequence(Statements counter) throws SQLException {
+        return insertPooled("payment", 1, counter)
+                + insertPooled("orders", 1, counter)
+                + insertPooled("order_item", CHECKOUT_LINES, counter);
+    }
+
+    @Benchmark
+    public long bulkProductsIdentity(Statements counter) throws SQLException {
+        long id = 0;
+        for(int i = 0; i < BULK_PRODUCTS; i++)
+            id += insertIdentity("products", counter);
+        return id;
+    }
+
+    @Benchmark
+    public long bulkProductsPooledSequence(Statements counter) throws SQLException {
+        return insertPooled("products", BULK_PRODUCTS, counter);
+    }
+
+    private long insertIdentity(String table, Statements counter) throws SQLException {
+        try(PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + "_identity (payload) values (?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, table);
+            insert.executeUpdate();
+            counter.statements++;
+            try(ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    // Every sequence call hands out a block of BATCH_SIZE ids, so blocks and batches line up
+    private long insertPooled(String table, int rows, Statements counter) throws SQLException {
+        long lastId = 0;
+        try(PreparedStatement nextBlock = connection.prepareStatement("select next value for " + table + "_seq");
+            PreparedStatement insert = connection.prepareStatement("insert into " + table + "_pooled (id, payload) values (?, ?)")) {
+            for(int start = 0; start < rows; start += BATCH_SIZE) {
+                long hi;
+                try(ResultSet resultSet = nextBlock.executeQuery()) {
+                    resultSet.next();
+                    hi = resultSet.getLong(1);
+                }
+                counter.statements++;
+
+                int end = Math.min(rows, start + BATCH_SIZE);
+                for(int i = start; i < end; i++) {
+                    lastId = hi - BATCH_SIZE + 1 + (i - start);
+                    insert.setLong(1, lastId);
+                    insert.setString(2, table);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                counter.statements++;
+            }
+        }
+        return lastId;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        database.shutdown();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IdGenerationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
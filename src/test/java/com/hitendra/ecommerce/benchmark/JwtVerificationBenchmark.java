@@ -0,0 +1,69 @@
+package com.hitendra.ecommerce.benchmark;
+
+import com.hitendra.ecommerce.security.jwt.JwtClaims;
+import com.hitendra.ecommerce.security.jwt.JwtUtils;
+import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the old validate + username path (two key builds, two parses) with JwtUtils.verifyToken.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mySecretKey123912738aopsgjnspkmndfsopkvajoirjg94gf2opfng2moknm";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_000_000L);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername(new UserDetailsImplementation(
+                1L, "user1", "user1@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+    }
+
+    @Benchmark
+    public String oldValidateThenParse() {
+        Jwts.parser().verifyWith(oldKey()).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(oldKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public JwtClaims singlePassVerify() {
+        return jwtUtils.verifyToken(token);
+    }
+
+    private SecretKey oldKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.hitendra.ecommerce.benchmark;
+
+import com.hitendra.ecommerce.exceptions.PasswordHashingBusyException;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Latency of a catalog page render that has to get through a shared request pool (a stand-in for Tomcat's)
+// while flood clients keep signing in through the same pool. With "inline" BCrypt runs on the request threads,
+// with "bounded" it goes through BoundedPasswordEncoder. Compare the p0.99 rows of the two runs.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.LoginFloodBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    private static final int REQUEST_THREADS = 32;
+    // Fewer flood clients than request threads, the page never waits for a free thread, only for CPU
+    private static final int FLOOD_CLIENTS = 24;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"none", "inline", "bounded"})
+    public String login;
+
+    private ExecutorService requestPool;
+    private ExecutorService floodClients;
+    private PasswordEncoder passwordEncoder;
+    private String storedHash;
+    private volatile boolean flooding;
+
+    private ProductMapper productMapper;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        requestPool = Executors.newFixedThreadPool(REQUEST_THREADS);
+        floodClients = Executors.newFixedThreadPool(FLOOD_CLIENTS);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        storedHash = bcrypt.encode("password1");
+        int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        passwordEncoder = login.equals("bounded")
+                ? new BoundedPasswordEncoder(bcrypt, hashingThreads, 16, 2_000, 1, new SimpleMeterRegistry())
+                : bcrypt;
+
+        productMapper = new ProductMapper();
+        products = new ArrayList<>(PAGE_SIZE);
+        for(int i = 0; i < PAGE_SIZE; i++) {
+            Product product = new Product();
+            product.setProductId((long) i);
+            product.setProductName("Product " + i);
+            product.setDescription("Description of product " + i);
+            product.setQuantity(100);
+            product.setPrice(100);
+            product.setSpecialPrice(90);
+            products.add(product);
+        }
+
+        if(login.equals("none"))
+            return;
+
+        flooding = true;
+        for(int i = 0; i < FLOOD_CLIENTS; i++) {
+            floodClients.execute(() -> {
+                while(flooding) {
+                    try {
+                        // Turned-away clients back off briefly, as they would on a 503 with Retry-After
+                        if(!requestPool.submit(this::signIn).get())
+                            Thread.sleep(10);
+                    } catch(InterruptedException e) {
+                        return;
+                    } catch(ExecutionException | RejectedExecutionException e) {
+                        // Pool shutting down between iterations
+                    }
+                }
+            });
+        }
+    }
+
+    //False when the encoder turned the sign-in away, the request thread is handed back straight away
+    private boolean signIn() {
+        try {
+            passwordEncoder.matches("password1", storedHash);
+            return true;
+        } catch(PasswordHashingBusyException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> catalogPage() throws Exception {
+        return requestPool.submit(() -> products.stream()
+                .map(productMapper::toDTO)
+                .toList()
+        ).get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        flooding = false;
+        floodClients.shutdownNow();
+        requestPool.shutdownNow();
+        if(passwordEncoder instanceof BoundedPasswordEncoder bounded)
+            bounded.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginFloodBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hitendra.ecommerce.benchmark;
+
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Maps one 50-item product page the way the catalog endpoints do, ModelMapper against ProductMapper.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.MappingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private List<Product> page;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        productMapper = new ProductMapper();
+
+        Category category = new Category(1L, "Electronics", new ArrayList<>());
+        page = new ArrayList<>(PAGE_SIZE);
+        for(long i = 1; i <= PAGE_SIZE; i++) {
+            Product product = new Product();
+            product.setProductId(i);
+            product.setProductName("Product " + i);
+            product.setImage("default.png");
+            product.setDescription("Description of product " + i);
+            product.setQuantity((int) i);
+            product.setPrice(100.0 + i);
+            product.setDiscount(10.0);
+            product.setSpecialPrice(90.0 + i);
+            product.setCategory(category);
+            page.add(product);
+        }
+
+        // Both paths must agree before timing them
+        if(!mapWithModelMapper().equals(mapWithProductMapper()))
+            throw new IllegalStateException("Mappers disagree on the benchmark page");
+    }
+
+    @Benchmark
+    public List<ProductDTO> mapWithModelMapper() {
+        return page.stream()
+                .map(product -> modelMapper.map(product, ProductDTO.class))
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> mapWithProductMapper() {
+        return page.stream()
+                .map(productMapper::toDTO)
+                .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.hitendra.ecommerce.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Removing one product referenced by 100k carts: the old per-cart read/update/delete loop vs the two set-based statements.
+// The statements mirror what CartServiceImplementation.removeProductFromCarts sends through Hibernate.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.ProductRemovalBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductRemovalBenchmark {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final long OTHER_PRODUCT_ID = 2L;
+
+    @Param("100000")
+    public int carts;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void createSchema() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table carts (card_id bigint primary key, total_price double not null)");
+        jdbcTemplate.execute("create table cart_items (cart_item_id bigint primary key, card_id bigint not null, " +
+                "product_id bigint not null, quantity int not null, product_price double not null)");
+        jdbcTemplate.execute("create index cart_items_product on cart_items (product_id)");
+        jdbcTemplate.execute("create index cart_items_cart on cart_items (card_id)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+    }
+
+    // Every cart holds the removed product plus one line that has to survive
+    @Setup(Level.Invocation)
+    public void seedCarts() {
+        jdbcTemplate.execute("delete from cart_items");
+        jdbcTemplate.execute("delete from carts");
+
+        List<Object[]> cartRows = new ArrayList<>(carts);
+        List<Object[]> itemRows = new ArrayList<>(carts * 2);
+        for(long cartId = 1; cartId <= carts; cartId++) {
+            cartRows.add(new Object[]{cartId, 2 * 40.0 + 10.0});
+            itemRows.add(new Object[]{cartId * 2, cartId, PRODUCT_ID, 2, 40.0});
+            itemRows.add(new Object[]{cartId * 2 + 1, cartId, OTHER_PRODUCT_ID, 1, 10.0});
+        }
+        jdbcTemplate.batchUpdate("insert into carts (card_id, total_price) values (?, ?)", cartRows);
+        jdbcTemplate.batchUpdate("insert into cart_items (cart_item_id, card_id, product_id, quantity, product_price) " +
+                "values (?, ?, ?, ?, ?)", itemRows);
+    }
+
+    @Benchmark
+    public Integer perCartLoop() {
+        return transactionTemplate.execute(status -> {
+            List<Long> cartIds = jdbcTemplate.queryForList(
+                    "select distinct card_id from cart_items where product_id = ?", Long.class, PRODUCT_ID);
+            for(Long cartId : cartIds) {
+                double totalPrice = jdbcTemplate.queryForObject(
+                        "select total_price from carts where card_id = ?", Double.class, cartId);
+                double linePrice = jdbcTemplate.queryForObject(
+                        "select quantity * product_price from cart_items where card_id = ? and product_id = ?",
+                        Double.class, cartId, PRODUCT_ID);
+                jdbcTemplate.update("update carts set total_price = ? where card_id = ?", totalPrice - linePrice, cartId);
+                jdbcTemplate.update("delete from cart_items where card_id = ? and product_id = ?", cartId, PRODUCT_ID);
+            }
+            return cartIds.size();
+        });
+    }
+
+    @Benchmark
+    public Integer setBased() {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("update carts c set total_price = total_price - " +
+                    "(select sum(ci.quantity * ci.product_price) from cart_items ci where ci.card_id = c.card_id and ci.product_id = ?) " +
+                    "where exists (select 1 from cart_items ci where ci.card_id = c.card_id and ci.product_id = ?)",
+                    PRODUCT_ID, PRODUCT_ID);
+            return jdbcTemplate.update("delete from cart_items where product_id = ?", PRODUCT_ID);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductRemovalBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hitendra.ecommerce.benchmark;
+
+import com.hitendra.ecommerce.inventory.HotSkuStock;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.inventory.StockLine;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reservations per second on a single SKU from 8 threads: conditional row update vs hot SKU counters.
+// Run with: java -cp target/test-classes:<test classpath> com.hitendra.ecommerce.benchmark.StockReservationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class StockReservationBenchmark {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final List<StockLine> ONE_UNIT = List.of(new StockLine(PRODUCT_ID, 1));
+
+    private EmbeddedDatabase database;
+    private TransactionTemplate transactionTemplate;
+    private InventoryService rowLockInventory;
+    private InventoryService hotSkuInventory;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+        jdbcTemplate.execute("create table products (product_id bigint primary key, quantity int not null)");
+        jdbcTemplate.update("insert into products (product_id, quantity) values (?, ?)", PRODUCT_ID, Integer.MAX_VALUE);
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        ProductStockRepository productStockRepository = new ProductStockRepository(jdbcTemplate);
+
+        rowLockInventory = new InventoryService(productStockRepository, new HotSkuStock(productStockRepository, "", 16));
+
+        HotSkuStock hotSkuStock = new HotSkuStock(productStockRepository, String.valueOf(PRODUCT_ID), 16);
+        hotSkuStock.track(PRODUCT_ID, Long.MAX_VALUE / 2);
+        hotSkuInventory = new InventoryService(productStockRepository, hotSkuStock);
+    }
+
+    @Benchmark
+    public List<StockLine> rowLock() {
+        return transactionTemplate.execute(status -> rowLockInventory.reserve(ONE_UNIT));
+    }
+
+    // No transaction needed, the reservation never touches the database
+    @Benchmark
+    public List<StockLine> hotSkuCounters() {
+        return hotSkuInventory.reserve(ONE_UNIT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StockReservationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
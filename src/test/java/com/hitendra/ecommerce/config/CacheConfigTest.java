@@ -0,0 +1,63 @@
+package com.hitendra.ecommerce.config;
+
+import com.hitendra.ecommerce.payload.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(60, 300, 1_000);
+    private final Cache products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+
+    @Test
+    void evictionInsideATransactionWaitsForTheCommit() {
+        products.put("page", page());
+
+        List<TransactionSynchronization> synchronizations = inTransaction(products::clear);
+        assertThat(products.get("page")).isNotNull();
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(products.get("page")).isNull();
+    }
+
+    @Test
+    void rolledBackTransactionKeepsTheEntries() {
+        products.put("page", page());
+
+        inTransaction(products::clear)
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(products.get("page")).isNotNull();
+    }
+
+    @Test
+    void evictionWithoutATransactionIsImmediate() {
+        products.put("page", page());
+
+        products.clear();
+
+        assertThat(products.get("page")).isNull();
+    }
+
+    private static ProductResponse page() {
+        return new ProductResponse(List.of(), 0, 50, 0L, 0, true);
+    }
+
+    //Runs the action with synchronization active and hands back what it registered, the test completes them
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
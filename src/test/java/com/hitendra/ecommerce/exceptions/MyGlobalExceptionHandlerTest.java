@@ -0,0 +1,78 @@
+package com.hitendra.ecommerce.exceptions;
+
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.APIResponse;
+import com.hitendra.ecommerce.repository.CategoryRepository;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+// Violations come from the real schema, so the constraint names are the ones the database reports
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class MyGlobalExceptionHandlerTest {
+
+    private final MyGlobalExceptionHandler handler = new MyGlobalExceptionHandler();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void duplicateCategoryNameIsAConflict() {
+        categoryRepository.saveAndFlush(new Category(null, "Stationery", null));
+
+        DataIntegrityViolationException e = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> categoryRepository.saveAndFlush(new Category(null, "Stationery", null)));
+
+        ResponseEntity<APIResponse> response = handler.myDataIntegrityViolationException(e);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getMessage()).isEqualTo("Resource already exists");
+    }
+
+    @Test
+    void duplicateProductNameInACategoryIsAConflict() {
+        Category category = categoryRepository.saveAndFlush(new Category(null, "Notebooks", null));
+        productRepository.saveAndFlush(product("Ruled notebook", category));
+
+        DataIntegrityViolationException e = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> productRepository.saveAndFlush(product("Ruled notebook", category)));
+
+        assertThat(handler.myDataIntegrityViolationException(e).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void foreignKeyViolationIsNotAConflict() {
+        Category missing = entityManager.getEntityManager().getReference(Category.class, 999_999L);
+
+        DataIntegrityViolationException e = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> productRepository.saveAndFlush(product("Orphan", missing)));
+
+        assertThatThrownBy(() -> handler.myDataIntegrityViolationException(e)).isSameAs(e);
+    }
+
+    private Product product(String name, Category category) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setQuantity(10);
+        product.setPrice(5);
+        product.setSpecialPrice(5);
+        product.setCategory(category);
+        return product;
+    }
+}
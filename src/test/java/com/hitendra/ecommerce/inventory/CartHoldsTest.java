@@ -0,0 +1,69 @@
+package com.hitendra.ecommerce.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartHoldsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CartHolds cartHolds = new CartHolds(true, 1, 10, 64, meterRegistry);
+
+    @AfterEach
+    void close() {
+        cartHolds.close();
+    }
+
+    @Test
+    void otherCartsSeeTheHeldUnits() {
+        cartHolds.hold(1L, 100L, 3);
+        cartHolds.hold(2L, 100L, 2);
+
+        assertThat(cartHolds.heldByOthers(1L, 100L)).isEqualTo(2);
+        assertThat(cartHolds.heldByOthers(2L, 100L)).isEqualTo(3);
+        assertThat(cartHolds.heldByOthers(3L, 100L)).isEqualTo(5);
+        assertThat(meterRegistry.get("cart.holds.active").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void replacingAndReleasingAdjustTheTotals() {
+        cartHolds.hold(1L, 100L, 3);
+        cartHolds.hold(1L, 100L, 5);
+        cartHolds.hold(1L, 200L, 1);
+
+        assertThat(cartHolds.heldByOthers(2L, 100L)).isEqualTo(5);
+
+        cartHolds.release(1L, 100L);
+        assertThat(cartHolds.heldByOthers(2L, 100L)).isZero();
+
+        cartHolds.releaseCart(1L);
+        assertThat(cartHolds.heldByOthers(2L, 200L)).isZero();
+        assertThat(meterRegistry.get("cart.holds.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void holdsExpireAfterTheWindow() throws InterruptedException {
+        cartHolds.hold(1L, 100L, 4);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(cartHolds.heldByOthers(2L, 100L) > 0 && System.nanoTime() < deadline)
+            Thread.sleep(50);
+
+        assertThat(cartHolds.heldByOthers(2L, 100L)).isZero();
+        assertThat(meterRegistry.get("cart.holds.expired").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cart.holds.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledHoldsReserveNothing() {
+        CartHolds disabled = new CartHolds(false, 1, 10, 64, new SimpleMeterRegistry());
+
+        disabled.hold(1L, 100L, 4);
+
+        assertThat(disabled.heldByOthers(2L, 100L)).isZero();
+    }
+}
@@ -0,0 +1,179 @@
+package com.hitendra.ecommerce.inventory;
+
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class HotSkuStockTest {
+
+    private static final Long PRODUCT_ID = 42L;
+
+    private final ProductStockRepository productStockRepository = mock(ProductStockRepository.class);
+    private final HotSkuStock hotSkuStock = new HotSkuStock(productStockRepository, "42", 8);
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        hotSkuStock.track(PRODUCT_ID, 1_000);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> workers = new ArrayList<>();
+        for(int t = 0; t < 16; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for(int i = 0; i < 500; i++) {
+                    if(hotSkuStock.reserve(PRODUCT_ID, 1 + i % 3) != HotSkuStock.SHORT)
+                        reserved.addAndGet(1 + i % 3);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for(Future<?> worker : workers)
+            worker.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        assertThat(reserved.get()).isLessThanOrEqualTo(1_000);
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(1_000 - reserved.get());
+    }
+
+    @Test
+    void flushWritesTheNetDeltaOnce() {
+        hotSkuStock.track(PRODUCT_ID, 100);
+        hotSkuStock.reserve(PRODUCT_ID, 5);
+        long epoch = hotSkuStock.reserve(PRODUCT_ID, 3);
+        hotSkuStock.release(PRODUCT_ID, epoch, 2);
+
+        hotSkuStock.flush();
+        hotSkuStock.flush();
+
+        verify(productStockRepository, times(1)).applyDeltas(List.of(new StockLine(PRODUCT_ID, 6)));
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(94);
+    }
+
+    @Test
+    void failedFlushKeepsTheDeltaForTheNextTick() {
+        hotSkuStock.track(PRODUCT_ID, 100);
+        hotSkuStock.reserve(PRODUCT_ID, 4);
+        doThrow(new IllegalStateException("database down")).doNothing()
+                .when(productStockRepository).applyDeltas(anyList());
+
+        hotSkuStock.flush();
+        hotSkuStock.flush();
+
+        verify(productStockRepository, times(2)).applyDeltas(List.of(new StockLine(PRODUCT_ID, 4)));
+    }
+
+    @Test
+    void flushWaitsForAnAdminOverwriteToCommit() throws Exception {
+        InventoryService inventoryService = new InventoryService(productStockRepository, hotSkuStock);
+        hotSkuStock.track(PRODUCT_ID, 100);
+        hotSkuStock.reserve(PRODUCT_ID, 5);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> inventoryService.stockOverwritten(PRODUCT_ID, 50));
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        Future<?> flush = flusher.submit(hotSkuStock::flush);
+
+        // The 5 reserved units were counted against the old level, they must not be written under the new one
+        assertThatThrownBy(() -> flush.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        flush.get(2, TimeUnit.SECONDS);
+        flusher.shutdown();
+
+        verify(productStockRepository, never()).applyDeltas(anyList());
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(50);
+    }
+
+    @Test
+    void rolledBackOverwriteLeavesTheCountersAlone() {
+        InventoryService inventoryService = new InventoryService(productStockRepository, hotSkuStock);
+        hotSkuStock.track(PRODUCT_ID, 100);
+        hotSkuStock.reserve(PRODUCT_ID, 5);
+
+        inTransaction(() -> inventoryService.stockOverwritten(PRODUCT_ID, 50))
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        hotSkuStock.flush();
+
+        verify(productStockRepository).applyDeltas(List.of(new StockLine(PRODUCT_ID, 5)));
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(95);
+    }
+
+    @Test
+    void releaseAfterAnOverwriteDoesNotInflateTheNewLevel() {
+        hotSkuStock.track(PRODUCT_ID, 100);
+        long epoch = hotSkuStock.reserve(PRODUCT_ID, 5);
+
+        hotSkuStock.holdFlushes(PRODUCT_ID);
+        hotSkuStock.overwrite(PRODUCT_ID, 50);
+        hotSkuStock.resumeFlushes(PRODUCT_ID);
+        hotSkuStock.release(PRODUCT_ID, epoch, 5);
+        hotSkuStock.flush();
+
+        verify(productStockRepository, never()).applyDeltas(anyList());
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(50);
+    }
+
+    @Test
+    void overwritesRacingReservationsLeaveNoDrift() throws Exception {
+        hotSkuStock.track(PRODUCT_ID, 1_000);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Every reservation is handed back, so once the last overwrite settles nothing may be pending or missing
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for(int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                while(running.get()) {
+                    int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                    long epoch = hotSkuStock.reserve(PRODUCT_ID, quantity);
+                    if(epoch != HotSkuStock.SHORT)
+                        hotSkuStock.release(PRODUCT_ID, epoch, quantity);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for(int i = 0; i < 2_000; i++) {
+            hotSkuStock.holdFlushes(PRODUCT_ID);
+            try {
+                hotSkuStock.overwrite(PRODUCT_ID, 1_000);
+            } finally {
+                hotSkuStock.resumeFlushes(PRODUCT_ID);
+            }
+        }
+        running.set(false);
+        for(Future<?> worker : workers)
+            worker.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        hotSkuStock.flush();
+
+        verify(productStockRepository, never()).applyDeltas(anyList());
+        assertThat(hotSkuStock.available(PRODUCT_ID)).isEqualTo(1_000);
+    }
+
+    //Runs the action with synchronization active and hands back what it registered, the test completes them
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
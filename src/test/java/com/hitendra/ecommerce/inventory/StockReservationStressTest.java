@@ -0,0 +1,95 @@
+package com.hitendra.ecommerce.inventory;
+
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Hammers one SKU from many threads, each reservation in its own committed transaction
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({InventoryService.class, HotSkuStock.class, ProductStockRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationStressTest.class);
+
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+        jdbcTemplate.update(
+                "insert into products (product_name, description, quantity, price, discount, special_price) values (?, ?, ?, 10, 0, 10)",
+                "Flash Sale SKU", "Flash sale product", STOCK
+        );
+        Long productId = jdbcTemplate.queryForObject(
+                "select product_id from products where product_name = ?", Long.class, "Flash Sale SKU"
+        );
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for(int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for(int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    List<StockLine> shortages = transactionTemplate.execute(status ->
+                            inventoryService.reserve(List.of(new StockLine(productId, 1)))
+                    );
+                    if(shortages.isEmpty())
+                        reserved.incrementAndGet();
+                    else
+                        rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for(Future<?> worker : workers)
+            worker.get(2, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        logger.info("{} reservation attempts on one SKU from {} threads in {} ms ({} attempts/s, {} reserved, {} rejected)",
+                attempts, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(attempts / (elapsedNanos / 1e9)), reserved.get(), rejected.get());
+
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(attempts - STOCK);
+        assertThat(jdbcTemplate.queryForObject("select quantity from products where product_id = ?", Integer.class, productId))
+                .isZero();
+    }
+}
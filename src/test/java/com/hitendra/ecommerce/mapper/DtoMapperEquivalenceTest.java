@@ -0,0 +1,156 @@
+package com.hitendra.ecommerce.mapper;
+
+import com.hitendra.ecommerce.model.*;
+import com.hitendra.ecommerce.payload.*;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The hand-written mappers must produce exactly what the ModelMapper bean used to produce
+class DtoMapperEquivalenceTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private final AddressMapper addressMapper = new AddressMapper();
+    private final CartMapper cartMapper = new CartMapper(productMapper);
+    private final OrderMapper orderMapper = new OrderMapper(productMapper);
+
+    @Test
+    void productToDTO() {
+        Product product = product(7L, 12);
+
+        assertThat(productMapper.toDTO(product))
+                .isEqualTo(modelMapper.map(product, ProductDTO.class));
+    }
+
+    @Test
+    void productToEntity() {
+        ProductDTO productDTO = new ProductDTO(9L, "Desk Lamp", "lamp.png", "Warm white lamp", 4, 40.0, 10.0, 36.0);
+
+        Product product = productMapper.toEntity(productDTO);
+
+        assertThat(product.getProductId()).isNull();
+        assertThat(product)
+                .usingRecursiveComparison()
+                .ignoringFields("productId")
+                .isEqualTo(modelMapper.map(productDTO, Product.class));
+    }
+
+    @Test
+    void categoryToDTOAndBack() {
+        Category category = category();
+        CategoryDTO categoryDTO = new CategoryDTO(5L, "Electronics");
+
+        assertThat(categoryMapper.toDTO(category))
+                .isEqualTo(modelMapper.map(category, CategoryDTO.class));
+
+        Category mapped = categoryMapper.toEntity(categoryDTO);
+        assertThat(mapped.getCategoryId()).isNull();
+        assertThat(mapped)
+                .usingRecursiveComparison()
+                .ignoringFields("categoryId")
+                .isEqualTo(modelMapper.map(categoryDTO, Category.class));
+    }
+
+    @Test
+    void addressToDTOAndBack() {
+        Address address = address();
+        AddressDTO addressDTO = modelMapper.map(address, AddressDTO.class);
+
+        assertThat(addressMapper.toDTO(address))
+                .usingRecursiveComparison()
+                .isEqualTo(addressDTO);
+
+        Address mapped = addressMapper.toEntity(addressDTO);
+        assertThat(mapped.getAddressId()).isNull();
+        assertThat(mapped)
+                .usingRecursiveComparison()
+                .ignoringFields("addressId")
+                .isEqualTo(modelMapper.map(addressDTO, Address.class));
+    }
+
+    @Test
+    void cartToDTO() {
+        Cart cart = new Cart();
+        cart.setCardId(3L);
+        cart.setTotalPrice(144.0);
+        cart.getCartItems().add(cartItem(cart, product(1L, 50), 2));
+        cart.getCartItems().add(cartItem(cart, product(2L, 8), 1));
+
+        // What the services assembled around ModelMapper: products carry the cart quantity
+        CartDTO expected = modelMapper.map(cart, CartDTO.class);
+        expected.setProducts(cart.getCartItems().stream().map(item -> {
+            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
+            productDTO.setQuantity(item.getQuantity());
+            return productDTO;
+        }).toList());
+
+        CartDTO actual = cartMapper.toDTO(cart);
+
+        // ModelMapper never matched Cart.cardId to CartDTO.cartId, the mapper fills it in
+        assertThat(actual.getCartId()).isEqualTo(cart.getCardId());
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .ignoringFields("cartId")
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void orderToDTO() {
+        Order order = new Order();
+        order.setOrderId(11L);
+        order.setEmail("user1@example.com");
+        order.setOrderDate(LocalDate.of(2025, 1, 15));
+        order.setOrderPrice(144.0);
+        order.setOrderStatus("Order Accepted");
+        order.setAddress(address());
+
+        Payment payment = new Payment("card", "pg-123", "succeeded", "Payment successful", "stripe");
+        payment.setPaymentId(21L);
+        payment.setOrder(order);
+        order.setPayment(payment);
+
+        OrderItem orderItem = new OrderItem(31L, product(1L, 50), order, 2, 10.0, 45.0);
+        order.getOrderItems().add(orderItem);
+
+        assertThat(orderMapper.toDTO(order))
+                .isEqualTo(modelMapper.map(order, OrderDTO.class));
+        assertThat(orderMapper.toDTO(orderItem))
+                .isEqualTo(modelMapper.map(orderItem, OrderItemDTO.class));
+        assertThat(orderMapper.toDTO(payment))
+                .isEqualTo(modelMapper.map(payment, PaymentDTO.class));
+    }
+
+    private static Product product(Long productId, int quantity) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setProductName("Product " + productId);
+        product.setImage("default.png");
+        product.setDescription("Description of product " + productId);
+        product.setQuantity(quantity);
+        product.setPrice(50.0);
+        product.setDiscount(10.0);
+        product.setSpecialPrice(45.0);
+        product.setCategory(category());
+        return product;
+    }
+
+    private static Category category() {
+        return new Category(5L, "Electronics", List.of());
+    }
+
+    private static Address address() {
+        Address address = new Address("Baker Street", "Sunrise Towers", "London", "Greater London", "United Kingdom", "NW16XE");
+        address.setAddressId(2L);
+        return address;
+    }
+
+    private static CartItem cartItem(Cart cart, Product product, int quantity) {
+        return new CartItem(null, cart, product, quantity, product.getDiscount(), product.getSpecialPrice());
+    }
+}
@@ -0,0 +1,98 @@
+package com.hitendra.ecommerce.repository;
+
+import com.hitendra.ecommerce.config.HibernateConfig;
+import com.hitendra.ecommerce.mapper.CategoryMapper;
+import com.hitendra.ecommerce.model.AppRole;
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Role;
+import com.hitendra.ecommerce.payload.CategoryDTO;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import com.hitendra.ecommerce.service.CategoryService;
+import com.hitendra.ecommerce.service.CategoryServiceImplementation;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every repository call commits on its own, the cache is only written once a transaction completes
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({HibernateConfig.class, CategoryServiceImplementation.class, CategoryMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockitoBean
+    private ProductSuggester productSuggester;
+
+    private Cache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void resolveCache() {
+        cache = entityManagerFactory.getCache();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void lookupsFillTheReferenceDataRegions() {
+        Category category = categoryRepository.save(new Category(null, "Reference books", null));
+        Role role = roleRepository.save(new Role(AppRole.ROLE_SELLER));
+        cache.evictAll();
+        statistics.clear();
+
+        assertThat(categoryRepository.findById(category.getCategoryId())).isPresent();
+        assertThat(roleRepository.findByRoleName(AppRole.ROLE_SELLER)).isPresent();
+
+        assertThat(cache.contains(Category.class, category.getCategoryId())).isTrue();
+        assertThat(cache.contains(Role.class, role.getRoleId())).isTrue();
+        assertThat(statistics.getDomainDataRegionStatistics(HibernateConfig.CATEGORY_REGION).getPutCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(HibernateConfig.ROLE_REGION).getPutCount()).isEqualTo(1);
+        assertThat(statistics.getQueryRegionStatistics(HibernateConfig.ROLE_BY_NAME_REGION).getPutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminCategoryChangesNeverServeTheCachedCopy() {
+        Long categoryId = categoryRepository.save(new Category(null, "Garden tools", null)).getCategoryId();
+        categoryRepository.findById(categoryId);
+        assertThat(cache.contains(Category.class, categoryId)).isTrue();
+
+        categoryService.updateCategory(new CategoryDTO(null, "Garden furniture"), categoryId);
+
+        assertThat(categoryRepository.findById(categoryId))
+                .get()
+                .extracting(Category::getCategoryName)
+                .isEqualTo("Garden furniture");
+
+        categoryService.deleteCategory(categoryId);
+        statistics.clear();
+
+        // Read-write regions keep a soft lock where the entry was, what matters is that nothing is served from it
+        assertThat(categoryRepository.findById(categoryId)).isEmpty();
+        assertThat(statistics.getDomainDataRegionStatistics(HibernateConfig.CATEGORY_REGION).getHitCount()).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.hitendra.ecommerce.repository;
+
+import com.hitendra.ecommerce.model.User;
+import com.hitendra.ecommerce.support.RecordingStatementInspector;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every repository query against a seeded PostgreSQL 16 container migrated by Flyway and fails
+// when a plan sequentially scans one of the large tables. Part of every build that has Docker, skipped without it.
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.hitendra.ecommerce.support.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int USERS = 20_000;
+    private static final int CATEGORIES = 50;
+    private static final int PRODUCTS = 50_000;
+
+    private static final Set<String> LARGE_TABLES =
+            Set.of("users", "addresses", "products", "carts", "cart_items", "orders", "order_item", "payment");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Test
+    void repositoryQueriesAvoidSequentialScansOnLargeTables() {
+        seed();
+
+        String email = "user42@example.com";
+        User user = userRepository.findUsersByUsername("user42").orElseThrow();
+
+        // findAllCartLines and findAllProductText read whole tables by design and are left out
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("CartRepository.findCartByEmail", () -> cartRepository.findCartByEmail(email));
+        queries.put("CartRepository.findCartWithItemsByEmail", () -> cartRepository.findCartWithItemsByEmail(email));
+        queries.put("CartRepository.findCartLinesByEmail", () -> cartRepository.findCartLinesByEmail(email));
+        queries.put("CartRepository.repriceCartTotals", () -> cartRepository.repriceCartTotals(7L, 10));
+        queries.put("CartRepository.deductProductFromCartTotals", () -> cartRepository.deductProductFromCartTotals(7L));
+        queries.put("CartItemRepository.findCartItemByProductIdAndCartId", () -> cartItemRepository.findCartItemByProductIdAndCartId(7L, 42L));
+        queries.put("CartItemRepository.repriceCartItems", () -> cartItemRepository.repriceCartItems(7L, 10, 0));
+        queries.put("CartItemRepository.deleteCartItemByProductIdAndCartId", () -> cartItemRepository.deleteCartItemByProductIdAndCartId(7L, 42L));
+        queries.put("CartItemRepository.deleteAllByProductId", () -> cartItemRepository.deleteAllByProductId(8L));
+        queries.put("CartItemRepository.deleteAllByCartId", () -> cartItemRepository.deleteAllByCartId(43L));
+        queries.put("ProductRepository.findProductPageByCategoryId", () -> productRepository.findProductPageByCategoryId(3L, PageRequest.of(0, 10)));
+        queries.put("ProductRepository.findProductDTOsByProductIdIn", () -> productRepository.findProductDTOsByProductIdIn(List.of(1L, 2L, 3L)));
+        queries.put("ProductRepository.existsByCategory_CategoryIdAndProductName", () -> productRepository.existsByCategory_CategoryIdAndProductName(3L, "Product 3"));
+        queries.put("ProductRepository.findProductNamesByCategoryId", () -> productRepository.findProductNamesByCategoryId(3L));
+        queries.put("CategoryRepository.existsByCategoryName", () -> categoryRepository.existsByCategoryName("Category 3"));
+        queries.put("CategoryRepository.existsByCategoryNameAndCategoryIdNot", () -> categoryRepository.existsByCategoryNameAndCategoryIdNot("Category 3", 4L));
+        queries.put("UserRepository.findUsersByUsername", () -> userRepository.findUsersByUsername("user43"));
+        queries.put("UserRepository.existsUsersByUsername", () -> userRepository.existsUsersByUsername("user43"));
+        queries.put("UserRepository.existsUsersByEmail", () -> userRepository.existsUsersByEmail("user43@example.com"));
+        queries.put("AddressRepository.findAddressByUser", () -> addressRepository.findAddressByUser(user));
+        queries.put("AddressRepository.findAddressByUserAndAddressId", () -> addressRepository.findAddressByUserAndAddressId(user, 42L));
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            entityManager.clear();
+            RecordingStatementInspector.drain();
+            query.run();
+            for(String sql : RecordingStatementInspector.drain()) {
+                String plan = explain(sql);
+                Matcher matcher = SEQ_SCAN.matcher(plan);
+                while(matcher.find())
+                    if(LARGE_TABLES.contains(matcher.group(1)))
+                        failures.add(name + " scans " + matcher.group(1) + "\n" + sql + "\n" + plan);
+            }
+        });
+
+        assertThat(failures).isEmpty();
+    }
+
+    // Generic plans take $n placeholders without values (PostgreSQL 16+)
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for(char c : sql.toCharArray()) {
+            if(c == '?')
+                numbered.append('$').append(++parameter);
+            else
+                numbered.append(c);
+        }
+        return String.join("\n", jdbcTemplate.queryForList("explain (generic_plan) " + numbered, String.class));
+    }
+
+    // Rows stay in the test transaction, ANALYZE counts them for the planner all the same
+    private void seed() {
+        jdbcTemplate.update("insert into users (user_id, username, email, password) " +
+                "select g, 'user' || g, 'user' || g || '@example.com', 'password' from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into addresses (address_id, street, building_name, city, state, country, pincode, user_id) " +
+                "select g, 'Street ' || g, 'Building ' || g, 'City', 'State', 'Country', '123456', g from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into category (category_id, category_name) " +
+                "select g, 'Category ' || g from generate_series(1, ?) g", CATEGORIES);
+        jdbcTemplate.update("insert into products (product_id, product_name, description, quantity, price, discount, special_price, category_id) " +
+                "select g, 'Product ' || g, 'Description ' || g, 100, 10, 0, 10, 1 + g % ? from generate_series(1, ?) g", CATEGORIES, PRODUCTS);
+        jdbcTemplate.update("insert into carts (card_id, user_id, total_price) " +
+                "select g, g, 30 from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into cart_items (cart_item_id, card_id, product_id, quantity, discount, product_price) " +
+                "select g, 1 + g / 3, 1 + (g * 7919) % ?, 1, 0, 10 from generate_series(0, ? * 3 - 1) g", PRODUCTS, USERS);
+        jdbcTemplate.update("insert into payment (payment_id, payment_method) " +
+                "select g, 'card' from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into orders (order_id, email, payment_id, order_price, order_status, address_id) " +
+                "select g, 'user' || g || '@example.com', g, 30, 'Accepted', g from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into order_item (order_item_id, product_id, order_id, quantity, discount, ordered_product_price) " +
+                "select g, 1 + (g * 7919) % ?, 1 + g / 3, 1, 0, 10 from generate_series(0, ? * 3 - 1) g", PRODUCTS, USERS);
+        jdbcTemplate.execute("analyze");
+    }
+}
@@ -0,0 +1,47 @@
+package com.hitendra.ecommerce.repository;
+
+import com.hitendra.ecommerce.model.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// data.sql runs here, its rows and any other raw insert take ids from the same sequences Hibernate uses
+@DataJpaTest
+class SequenceIdDefaultsTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void seedDataLinksEveryProductToItsCategory() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from category", Long.class)).isEqualTo(102);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from products p join category c on c.category_id = p.category_id", Long.class))
+                .isEqualTo(93);
+        assertThat(jdbcTemplate.queryForObject(
+                "select c.category_name from products p join category c on c.category_id = p.category_id " +
+                        "where p.product_name = 'iPhone 15 Pro'", String.class))
+                .isEqualTo("Smartphones");
+    }
+
+    @Test
+    void rawInsertsAndHibernateBlocksNeverCollide() {
+        // Raw inserts land between the ids of a block Hibernate is still handing out
+        for(int i = 0; i < 120; i++) {
+            if(i % 40 == 0)
+                jdbcTemplate.update("insert into category (category_name) values (?)", "Raw category " + i);
+            categoryRepository.saveAndFlush(new Category(null, "Mapped category " + i, null));
+        }
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from category where category_name like 'Raw category %'", Long.class))
+                .isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct category_id) from category", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("select count(*) from category", Long.class));
+    }
+}
@@ -0,0 +1,175 @@
+package com.hitendra.ecommerce.search;
+
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.repository.ProductTextView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductStockRepository productStockRepository = mock(ProductStockRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository, productStockRepository);
+
+    @Test
+    void tokenizesOnAnythingButLettersAndDigits() {
+        assertThat(ProductSearchIndex.tokenize("USB-C Charger, 65W (Café edition)"))
+                .containsExactly("usb", "c", "charger", "65w", "café", "edition");
+        assertThat(ProductSearchIndex.tokenize("  ...  ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void matchesTermsByPrefixBelowExactMatches() {
+        index.index(product(1L, "Lamp", "Desk light", 10));
+        index.index(product(2L, "Lampshade", "Fabric cover", 10));
+
+        assertThat(index.search("lamp")).containsExactly(1L, 2L);
+        assertThat(index.search("lampsh")).containsExactly(2L);
+        assertThat(index.search("lampshades")).isEmpty();
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        index.index(product(1L, "Red mug", "Ceramic", 5));
+        index.index(product(2L, "Blue mug", "Ceramic", 5));
+        index.index(product(3L, "Red plate", "Ceramic", 5));
+
+        assertThat(index.search("red mug")).containsExactly(1L);
+        assertThat(index.search("ceramic green")).isEmpty();
+        assertThat(index.search("")).isEmpty();
+    }
+
+    @Test
+    void namesOutrankDescriptionsAndRareTermsOutrankCommonOnes() {
+        index.index(product(1L, "Kettle", "Steel body", 30));
+        index.index(product(2L, "Teapot", "Works with any kettle", 30));
+        assertThat(index.search("kettle")).containsExactly(1L, 2L);
+
+        // Same weights either way round, but "steel" is on more products, so a name match on "glass" counts for more
+        index.index(product(3L, "Steel pan", "Cast", 30));
+        index.index(product(4L, "Steel jug", "Glass lid", 30));
+        index.index(product(5L, "Glass jug", "Steel lid", 30));
+        assertThat(index.search("steel glass")).containsExactly(5L, 4L);
+    }
+
+    @Test
+    void reindexingReplacesAndRemovingDropsTheProduct() {
+        index.index(product(1L, "Old name", "Plain", 10));
+        index.index(product(1L, "New name", "Plain", 10));
+
+        assertThat(index.search("old")).isEmpty();
+        assertThat(index.search("new")).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("plain")).isEmpty();
+        assertThat(index.search("plain", "price", true)).isEmpty();
+    }
+
+    @Test
+    void sortsMatchesByAProductFieldWithIdsBreakingTies() {
+        index.index(product(1L, "Pen blue", "Ink", 3));
+        index.index(product(2L, "Pen black", "Ink", 1));
+        index.index(product(3L, "Pen red", "Ink", 3));
+        index.index(product(4L, "Pencil", "Graphite", 2));
+
+        assertThat(index.search("pen", "price", true)).containsExactly(2L, 4L, 1L, 3L);
+        assertThat(index.search("pen", "price", false)).containsExactly(3L, 1L, 4L, 2L);
+        assertThat(index.search("pen", "productName", true)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(index.search("ink", "productId", false)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void sortsByTheStockLevelTheDatabaseHasNow() {
+        index.index(product(1L, "Pen blue", "Ink", 3));
+        index.index(product(2L, "Pen black", "Ink", 1));
+        index.index(product(3L, "Pen red", "Ink", 3));
+        when(productStockRepository.findQuantities(anyCollection())).thenReturn(Map.of(1L, 40, 2L, 5, 3L, 5));
+
+        assertThat(index.search("pen", "quantity", true)).containsExactly(2L, 3L, 1L);
+        assertThat(index.search("pen", "quantity", false)).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void rejectsFieldsThatAreNotOnProductDTO() {
+        index.index(product(1L, "Pen", "Ink", 3));
+
+        assertThatThrownBy(() -> index.search("pen", "category", true))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("productId, description, discount, image, price, productName, specialPrice or quantity, not category");
+    }
+
+    @Test
+    void rebuildReplacesEverythingWithTheStoredProducts() {
+        index.index(product(9L, "Stale", "Gone", 1));
+        when(productRepository.findAllProductText()).thenReturn(List.of(
+                new TextView(1L, "Notebook", "Ruled", 4),
+                new TextView(2L, "Notepad", "Plain", 2)
+        ));
+
+        index.rebuild();
+
+        assertThat(index.search("stale")).isEmpty();
+        assertThat(index.search("note", "specialPrice", true)).containsExactly(2L, 1L);
+    }
+
+    private static Product product(Long productId, String productName, String description, double price) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setProductName(productName);
+        product.setDescription(description);
+        product.setPrice(price);
+        product.setSpecialPrice(price);
+        return product;
+    }
+
+    private record TextView(Long productId, String productName, String description, double price)
+            implements ProductTextView {
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public String getProductName() {
+            return productName;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getImage() {
+            return null;
+        }
+
+        @Override
+        public double getPrice() {
+            return price;
+        }
+
+        @Override
+        public double getDiscount() {
+            return 0;
+        }
+
+        @Override
+        public double getSpecialPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hitendra.ecommerce.search;
+
+import com.hitendra.ecommerce.payload.SuggestionDTO;
+import com.hitendra.ecommerce.repository.CategoryProductCountView;
+import com.hitendra.ecommerce.repository.CategoryRepository;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.repository.ProductTextView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProductSuggesterTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ProductSuggester suggester = new ProductSuggester(productRepository, categoryRepository);
+
+    @AfterEach
+    void shutdown() {
+        suggester.shutdown();
+    }
+
+    @Test
+    void suggestsCategoriesAbovePopulatedProducts() {
+        List<CategoryProductCountView> categories = List.of(category(1L, "Garden", 3), category(2L, "Games", 0));
+        List<ProductTextView> products = List.of(product(10L, "Garden hose"), product(11L, "Gadget"));
+        when(categoryRepository.findAllWithProductCount()).thenReturn(categories);
+        when(productRepository.findAllProductText()).thenReturn(products);
+
+        suggester.requestRebuild();
+        verify(productRepository, timeout(2_000)).findAllProductText();
+
+        assertThat(awaitSuggestions("ga")).containsExactly(
+                new SuggestionDTO("Garden", ProductSuggester.CATEGORY, 1L),
+                new SuggestionDTO("Games", ProductSuggester.CATEGORY, 2L),
+                new SuggestionDTO("Gadget", ProductSuggester.PRODUCT, 11L),
+                new SuggestionDTO("Garden hose", ProductSuggester.PRODUCT, 10L)
+        );
+    }
+
+    @Test
+    void requestsWhileARebuildIsQueuedAreCoalesced() throws InterruptedException {
+        CountDownLatch firstRebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRebuild = new CountDownLatch(1);
+        when(categoryRepository.findAllWithProductCount()).thenAnswer(invocation -> {
+            if(firstRebuildStarted.getCount() > 0) {
+                firstRebuildStarted.countDown();
+                releaseFirstRebuild.await(2, TimeUnit.SECONDS);
+            }
+            return List.of();
+        });
+        when(productRepository.findAllProductText()).thenReturn(List.of());
+
+        suggester.requestRebuild();
+        assertThat(firstRebuildStarted.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // The running rebuild may have missed these changes, they share one more rebuild between them
+        for(int i = 0; i < 5; i++)
+            suggester.requestRebuild();
+        releaseFirstRebuild.countDown();
+
+        verify(categoryRepository, timeout(2_000).times(2)).findAllWithProductCount();
+        verify(categoryRepository, after(200).times(2)).findAllWithProductCount();
+    }
+
+    private List<SuggestionDTO> awaitSuggestions(String query) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        List<SuggestionDTO> suggestions = suggester.suggest(query, 10);
+        while(suggestions.isEmpty() && System.nanoTime() < deadline)
+            suggestions = suggester.suggest(query, 10);
+        return suggestions;
+    }
+
+    private static CategoryProductCountView category(Long categoryId, String categoryName, long productCount) {
+        CategoryProductCountView category = mock(CategoryProductCountView.class);
+        when(category.getCategoryId()).thenReturn(categoryId);
+        when(category.getCategoryName()).thenReturn(categoryName);
+        when(category.getProductCount()).thenReturn(productCount);
+        return category;
+    }
+
+    private static ProductTextView product(Long productId, String productName) {
+        ProductTextView product = mock(ProductTextView.class);
+        when(product.getProductId()).thenReturn(productId);
+        when(product.getProductName()).thenReturn(productName);
+        return product;
+    }
+}
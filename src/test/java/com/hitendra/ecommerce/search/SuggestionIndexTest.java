@@ -0,0 +1,105 @@
+package com.hitendra.ecommerce.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void completesFromTheStartOfAnyWord() {
+        SuggestionIndex index = index(
+                entry("Red coffee mug", 1),
+                entry("Mug rack", 1),
+                entry("Humbug poster", 1)
+        );
+
+        assertThat(texts(index, "mug", 10)).containsExactly("Mug rack", "Red coffee mug");
+        assertThat(texts(index, "coffee m", 10)).containsExactly("Red coffee mug");
+    }
+
+    @Test
+    void ranksByWeightThenLengthThenText() {
+        SuggestionIndex index = index(
+                entry("Laptop stand", 1),
+                entry("Laptops", 5),
+                entry("Laptop bag", 1),
+                entry("Laptop", 1)
+        );
+
+        assertThat(texts(index, "lap", 10)).containsExactly("Laptops", "Laptop", "Laptop bag", "Laptop stand");
+    }
+
+    @Test
+    void returnsTheTopCompletionsWhenManyShareThePrefix() {
+        List<SuggestionEntry> entries = new ArrayList<>();
+        for(int i = 0; i < 1_000; i++)
+            entries.add(entry("Cable " + i, i % 97));
+        SuggestionIndex index = SuggestionIndex.build(entries);
+
+        List<String> expected = entries.stream()
+                .sorted((a, b) -> a.weight() != b.weight()
+                        ? Integer.compare(b.weight(), a.weight())
+                        : a.text().length() != b.text().length()
+                        ? Integer.compare(a.text().length(), b.text().length())
+                        : a.text().compareTo(b.text()))
+                .limit(5)
+                .map(SuggestionEntry::text)
+                .toList();
+        assertThat(texts(index, "cab", 5)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void entryMatchedThroughSeveralWordsIsSuggestedOnce() {
+        SuggestionIndex index = index(entry("Tea for tea lovers", 1));
+
+        assertThat(texts(index, "tea", 10)).containsExactly("Tea for tea lovers");
+    }
+
+    @Test
+    void toleratesOneTypoInThePrefix() {
+        SuggestionIndex index = index(entry("Keyboard", 1), entry("Monitor", 1));
+
+        assertThat(texts(index, "kyeb", 10)).as("transposition").containsExactly("Keyboard");
+        assertThat(texts(index, "kebo", 10)).as("deletion").containsExactly("Keyboard");
+        assertThat(texts(index, "keyyb", 10)).as("insertion").containsExactly("Keyboard");
+        assertThat(texts(index, "monotor", 10)).as("substitution").containsExactly("Monitor");
+        assertThat(texts(index, "mxnxtor", 10)).as("two edits").isEmpty();
+    }
+
+    @Test
+    void exactCompletionsComeBeforeFuzzyOnes() {
+        SuggestionIndex index = index(entry("Cart", 1), entry("Card", 9));
+
+        // "card" is one substitution from "cart", it only fills the places the exact match left
+        assertThat(texts(index, "cart", 10)).containsExactly("Cart", "Card");
+        assertThat(texts(index, "cart", 1)).containsExactly("Cart");
+    }
+
+    @Test
+    void emptyQueriesAndIndexesSuggestNothing() {
+        SuggestionIndex index = index(entry("Anything", 1));
+
+        assertThat(index.suggest("  -- ", 10)).isEmpty();
+        assertThat(index.suggest("any", 0)).isEmpty();
+        assertThat(SuggestionIndex.EMPTY.suggest("any", 10)).isEmpty();
+    }
+
+    private static SuggestionIndex index(SuggestionEntry... entries) {
+        return SuggestionIndex.build(List.of(entries));
+    }
+
+    private static SuggestionEntry entry(String text, int weight) {
+        return new SuggestionEntry(text, ProductSuggester.PRODUCT, (long) text.hashCode(), weight);
+    }
+
+    private static List<String> texts(SuggestionIndex index, String query, int limit) {
+        return index.suggest(query, limit).stream()
+                .map(index::entry)
+                .map(SuggestionEntry::text)
+                .toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.hitendra.ecommerce.security;
+
+import com.hitendra.ecommerce.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatedEncoder delegate = new GatedEncoder();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void close() {
+        delegate.gate.countDown();
+        callers.shutdownNow();
+        encoder.close();
+    }
+
+    @Test
+    void hashesAndChecksThroughThePool() {
+        delegate.gate.countDown();
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, 2_000, 1, meterRegistry);
+
+        assertThat(encoder.encode("secret")).isEqualTo("{hashed}secret");
+        assertThat(encoder.matches("secret", "{hashed}secret")).isTrue();
+        assertThat(encoder.matches("wrong", "{hashed}secret")).isFalse();
+
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "hash").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "verify").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password.queue.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void fullQueueIsTurnedAwayImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 10_000, 3, meterRegistry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        delegate.started.await(2, TimeUnit.SECONDS);
+        Future<String> waiting = callers.submit(() -> encoder.encode("second"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOfSatisfying(PasswordHashingBusyException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+        assertThat(meterRegistry.get("auth.password.rejected").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+
+        delegate.gate.countDown();
+        assertThat(running.get(2, TimeUnit.SECONDS)).isEqualTo("{hashed}first");
+        assertThat(waiting.get(2, TimeUnit.SECONDS)).isEqualTo("{hashed}second");
+    }
+
+    @Test
+    void signInChecksOvertakeQueuedHashes() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, 10_000, 1, meterRegistry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        delegate.started.await(2, TimeUnit.SECONDS);
+        Future<String> hash = callers.submit(() -> encoder.encode("signup"));
+        awaitQueueDepth(1);
+        Future<Boolean> check = callers.submit(() -> encoder.matches("login", "{hashed}login"));
+        awaitQueueDepth(2);
+
+        delegate.gate.countDown();
+        running.get(2, TimeUnit.SECONDS);
+        hash.get(2, TimeUnit.SECONDS);
+        assertThat(check.get(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(delegate.calls).containsExactly("encode first", "matches login", "encode signup");
+    }
+
+    @Test
+    void callerGivesUpAfterMaxWait() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, 50, 1, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("slow"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("auth.password.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while(meterRegistry.get("auth.password.queue.depth").gauge().value() < depth && System.nanoTime() < deadline)
+            Thread.sleep(5);
+    }
+
+    // Holds every call until the gate opens and records the order the pool ran them in
+    private static class GatedEncoder implements PasswordEncoder {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            pass("encode " + rawPassword);
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            pass("matches " + rawPassword);
+            return ("{hashed}" + rawPassword).equals(encodedPassword);
+        }
+
+        private void pass(String call) {
+            calls.add(call);
+            started.countDown();
+            try {
+                gate.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hitendra.ecommerce.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TokenRevocationRegistryTest {
+
+    private final VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(verifiedTokenCache);
+
+    @Test
+    void rejectsTokensIssuedUpToTheChangeIncludingItsOwnSecond() {
+        long before = System.currentTimeMillis();
+        registry.revokeUser("user1");
+        long after = System.currentTimeMillis();
+
+        // A token stamped with the change's second may have been signed just before it
+        assertThat(registry.isRevoked(claims("user1", before / 1000 * 1000))).isTrue();
+        assertThat(registry.isRevoked(claims("user1", before - 60_000))).isTrue();
+        assertThat(registry.isRevoked(claims("user1", (after / 1000 + 1) * 1000))).isFalse();
+        verify(verifiedTokenCache).evictUser("user1");
+    }
+
+    @Test
+    void tokensWithoutIssueTimeAreRejectedOnceTheUserChanged() {
+        registry.revokeUser("user1");
+
+        assertThat(registry.isRevoked(claims("user1", null))).isTrue();
+    }
+
+    @Test
+    void otherUsersAreUnaffected() {
+        registry.revokeUser("user1");
+
+        assertThat(registry.isRevoked(claims("seller1", System.currentTimeMillis() - 60_000))).isFalse();
+    }
+
+    private static JwtClaims claims(String subject, Long issuedAtMillis) {
+        Date issuedAt = issuedAtMillis == null ? null : new Date(issuedAtMillis);
+        return new JwtClaims(subject, 1L, subject + "@example.com", issuedAt, new Date(Long.MAX_VALUE), List.of("ROLE_USER"));
+    }
+}
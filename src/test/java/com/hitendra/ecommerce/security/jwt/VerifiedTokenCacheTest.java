@@ -0,0 +1,42 @@
+package com.hitendra.ecommerce.security.jwt;
+
+import com.hitendra.ecommerce.security.services.UserDetailsImplementation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000, new SimpleMeterRegistry());
+
+    @Test
+    void servesVerifiedTokensUntilTheUserIsEvicted() {
+        JwtClaims claims = claims("user1");
+        cache.put("token-1", claims, UserDetailsImplementation.build(claims), cache.generation());
+
+        assertThat(cache.get("token-1").getUsername()).isEqualTo("user1");
+
+        cache.evictUser("user1");
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    @Test
+    void verificationThatStartedBeforeAnEvictionIsNotCached() {
+        JwtClaims claims = claims("user1");
+        long generation = cache.generation();
+
+        // The request verified the token, then the user's roles changed before it got to cache the result
+        cache.evictUser("user1");
+        cache.put("token-1", claims, UserDetailsImplementation.build(claims), generation);
+
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    private static JwtClaims claims(String subject) {
+        return new JwtClaims(subject, 1L, subject + "@example.com", new Date(), new Date(System.currentTimeMillis() + 60_000), List.of("ROLE_USER"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.HotSkuStock;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.CartMapper;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.model.CartItem;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.model.User;
+import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.payload.CartLineUpdateDTO;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.utils.AuthUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({CartServiceImplementation.class, CartMapper.class, ProductMapper.class,
+        InventoryService.class, HotSkuStock.class, ProductStockRepository.class})
+class CartLineUpdateTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    @MockitoBean
+    private CartHolds cartHolds;
+
+    @MockitoBean
+    private CartUpdateCoalescer cartUpdateCoalescer;
+
+    private Product kept;
+    private Product dropped;
+    private Product added;
+    private Long cartId;
+
+    @BeforeEach
+    void createCart() {
+        User user = entityManager.persist(new User("shopper", "shopper@example.com", "password"));
+        when(authUtil.loggedInEmail()).thenReturn("shopper@example.com");
+
+        kept = createProduct("Kept", 20);
+        dropped = createProduct("Dropped", 15);
+        added = createProduct("Added", 5);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalPrice(20.0 + 15.0);
+        entityManager.persist(cart);
+        entityManager.persist(new CartItem(null, cart, kept, 1, 0, 20));
+        entityManager.persist(new CartItem(null, cart, dropped, 1, 0, 15));
+        cartId = cart.getCardId();
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void appliesEveryLineWithOneTotal() {
+        CartDTO cartDTO = cartService.updateUserCartLines(List.of(
+                new CartLineUpdateDTO(kept.getProductId(), 10),
+                new CartLineUpdateDTO(dropped.getProductId(), 0),
+                new CartLineUpdateDTO(added.getProductId(), 3)
+        ));
+        entityManager.flush();
+
+        Map<Long, Integer> quantities = cartDTO.getProducts().stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, ProductDTO::getQuantity));
+        assertThat(quantities).containsOnly(
+                Map.entry(kept.getProductId(), 10),
+                Map.entry(added.getProductId(), 3)
+        );
+        assertThat(cartDTO.getTotalPrice()).isEqualTo(10 * 20.0 + 3 * 5.0);
+        assertThat(jdbcTemplate.queryForObject("select total_price from carts where card_id = ?", Double.class, cartId))
+                .isEqualTo(215.0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cart_items where card_id = ?", Long.class, cartId))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void rejectsQuantitiesAboveTheStock() {
+        assertThatThrownBy(() -> cartService.updateUserCartLines(List.of(
+                new CartLineUpdateDTO(kept.getProductId(), 2),
+                new CartLineUpdateDTO(added.getProductId(), 101)
+        )))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("Added");
+    }
+
+    @Test
+    void rejectsTheSameProductTwice() {
+        assertThatThrownBy(() -> cartService.updateUserCartLines(List.of(
+                new CartLineUpdateDTO(kept.getProductId(), 2),
+                new CartLineUpdateDTO(kept.getProductId(), 3)
+        )))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void coalescedClickBeyondTheStockIsRejectedBeforeItIsAccepted() {
+        Map<Long, Integer> pending = coalesce();
+        pending.put(kept.getProductId(), 99);
+
+        assertThatThrownBy(() -> cartService.updateUserCart(kept.getProductId(), 2))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("less or equal to quantity: 100");
+        verify(cartUpdateCoalescer, never()).submit(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void soldOutProductCanStillBeTakenOutOfTheCart() {
+        jdbcTemplate.update("update products set quantity = 0 where product_id = ?", kept.getProductId());
+        jdbcTemplate.update("update cart_items set quantity = 3 where card_id = ? and product_id = ?", cartId, kept.getProductId());
+
+        CartDTO cartDTO = cartService.updateUserCart(kept.getProductId(), -1);
+
+        assertThat(cartDTO.getProducts())
+                .filteredOn(productDTO -> productDTO.getProductId().equals(kept.getProductId()))
+                .singleElement()
+                .extracting(ProductDTO::getQuantity)
+                .isEqualTo(2);
+    }
+
+    @Test
+    void addingAndDeletingLinesFlushPendingClicksFirst() {
+        cartService.deleteProductFromCart(cartId, dropped.getProductId());
+        verify(cartUpdateCoalescer).flush("shopper@example.com");
+
+        cartService.addProductToCart(dropped.getProductId(), 1);
+        verify(cartUpdateCoalescer, times(2)).flush("shopper@example.com");
+    }
+
+    // Coalescing on with an empty window, the returned map is what the service sees as already pending
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> coalesce() {
+        Map<Long, Integer> pending = new HashMap<>();
+        when(cartUpdateCoalescer.isEnabled()).thenReturn(true);
+        when(cartUpdateCoalescer.pending("shopper@example.com")).thenReturn(pending);
+        when(cartUpdateCoalescer.locked(anyString(), any())).thenAnswer(invocation ->
+                ((Supplier<CartDTO>) invocation.getArgument(1)).get());
+        return pending;
+    }
+
+    private Product createProduct(String name, double specialPrice) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setQuantity(100);
+        product.setPrice(specialPrice);
+        product.setSpecialPrice(specialPrice);
+        return entityManager.persist(product);
+    }
+}
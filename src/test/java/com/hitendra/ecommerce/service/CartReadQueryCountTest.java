@@ -0,0 +1,89 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.HotSkuStock;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.CartMapper;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.model.CartItem;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.model.User;
+import com.hitendra.ecommerce.payload.CartDTO;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.support.SqlStatementCounter;
+import com.hitendra.ecommerce.utils.AuthUtil;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({CartServiceImplementation.class, CartMapper.class, ProductMapper.class,
+        InventoryService.class, HotSkuStock.class, ProductStockRepository.class})
+class CartReadQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartService cartService;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    @MockitoBean
+    private CartHolds cartHolds;
+
+    @MockitoBean
+    private CartUpdateCoalescer cartUpdateCoalescer;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 5, 40})
+    void getUserCartRunsOneStatementWhateverTheCartSize(int cartSize) {
+        String email = "buyer" + cartSize + "@example.com";
+        createCart(email, cartSize);
+        when(authUtil.loggedInEmail()).thenReturn(email);
+
+        SqlStatementCounter counter = new SqlStatementCounter(entityManager.getEntityManager());
+        counter.reset();
+
+        CartDTO cartDTO = cartService.getUserCart();
+
+        assertThat(counter.count()).isEqualTo(1);
+        assertThat(cartDTO.getProducts()).hasSize(cartSize);
+        assertThat(cartDTO.getProducts()).allMatch(product -> product.getQuantity() == 2);
+    }
+
+    private void createCart(String email, int cartSize) {
+        User user = entityManager.persist(new User("buyer" + cartSize, email, "password"));
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        entityManager.persist(cart);
+
+        double totalPrice = 0;
+        for(int i = 0; i < cartSize; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setQuantity(100);
+            product.setPrice(50);
+            product.setSpecialPrice(50);
+            entityManager.persist(product);
+
+            entityManager.persist(new CartItem(null, cart, product, 2, 0, 50));
+            totalPrice += 100;
+        }
+        cart.setTotalPrice(totalPrice);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,152 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.HotSkuStock;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.CartMapper;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Cart;
+import com.hitendra.ecommerce.model.CartItem;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.model.User;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.support.StatementCountingConfig;
+import com.hitendra.ecommerce.support.StatementCountingDataSource;
+import com.hitendra.ecommerce.utils.AuthUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({CartServiceImplementation.class, CartMapper.class, ProductMapper.class,
+        InventoryService.class, HotSkuStock.class, ProductStockRepository.class, StatementCountingConfig.class})
+class CartRepricingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    @MockitoBean
+    private CartHolds cartHolds;
+
+    @MockitoBean
+    private CartUpdateCoalescer cartUpdateCoalescer;
+
+    @Test
+    void repricingMovesEveryCartTotalByTheLineDifference() {
+        Product repriced = createProduct("Repriced", 40);
+        Product other = createProduct("Other", 10);
+
+        Long firstCart = createCart(1, repriced, 3, other, 2);
+        Long secondCart = createCart(2, repriced, 1, null, 0);
+        Long untouchedCart = createCart(3, other, 5, null, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        cartService.repriceProductInCarts(repriced.getProductId(), 25, 10);
+        entityManager.flush();
+
+        assertThat(totalPrice(firstCart)).isEqualTo(3 * 25 + 2 * 10.0);
+        assertThat(totalPrice(secondCart)).isEqualTo(25.0);
+        assertThat(totalPrice(untouchedCart)).isEqualTo(50.0);
+        assertThat(jdbcTemplate.queryForList(
+                "select product_price from cart_items where product_id = ?", Double.class, repriced.getProductId()))
+                .containsOnly(25.0);
+        assertThat(jdbcTemplate.queryForList(
+                "select product_price from cart_items where product_id = ?", Double.class, other.getProductId()))
+                .containsOnly(10.0);
+    }
+
+    @Test
+    void statementCountDoesNotDependOnTheNumberOfCarts() {
+        Product few = createProduct("Few", 40);
+        Product many = createProduct("Many", 40);
+        for(int i = 0; i < 2; i++)
+            createCart(10 + i, few, 1, null, 0);
+        for(int i = 0; i < 30; i++)
+            createCart(20 + i, many, 1, null, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(repriceStatements(many)).isEqualTo(repriceStatements(few));
+    }
+
+    @Test
+    void removingAProductDeductsItsLinesAndDeletesThem() {
+        Product removed = createProduct("Removed", 40);
+        Product other = createProduct("Other", 10);
+
+        Long firstCart = createCart(60, removed, 3, other, 2);
+        Long secondCart = createCart(61, removed, 1, null, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        cartService.removeProductFromCarts(removed.getProductId());
+        entityManager.flush();
+
+        assertThat(totalPrice(firstCart)).isEqualTo(20.0);
+        assertThat(totalPrice(secondCart)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from cart_items where product_id = ?", Long.class, removed.getProductId()))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from cart_items where card_id = ?", Long.class, firstCart))
+                .isEqualTo(1);
+    }
+
+    private long repriceStatements(Product product) {
+        StatementCountingDataSource counter = (StatementCountingDataSource) dataSource;
+        counter.reset();
+        cartService.repriceProductInCarts(product.getProductId(), 30, 0);
+        entityManager.flush();
+        return counter.count();
+    }
+
+    private double totalPrice(Long cartId) {
+        return jdbcTemplate.queryForObject("select total_price from carts where card_id = ?", Double.class, cartId);
+    }
+
+    private Product createProduct(String name, double specialPrice) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setDescription(name + " description");
+        product.setQuantity(100);
+        product.setPrice(specialPrice);
+        product.setSpecialPrice(specialPrice);
+        return entityManager.persist(product);
+    }
+
+    private Long createCart(int buyer, Product first, int firstQuantity, Product second, int secondQuantity) {
+        User user = entityManager.persist(new User("buyer" + buyer, "buyer" + buyer + "@example.com", "password"));
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalPrice(first.getSpecialPrice() * firstQuantity
+                + (second != null ? second.getSpecialPrice() * secondQuantity : 0));
+        entityManager.persist(cart);
+
+        entityManager.persist(new CartItem(null, cart, first, firstQuantity, 0, first.getSpecialPrice()));
+        if(second != null)
+            entityManager.persist(new CartItem(null, cart, second, secondQuantity, 0, second.getSpecialPrice()));
+        return cart.getCardId();
+    }
+}
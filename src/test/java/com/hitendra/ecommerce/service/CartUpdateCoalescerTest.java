@@ -0,0 +1,82 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.exceptions.APIException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CartUpdateCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CartService cartService = mock(CartService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void burstOfClicksBecomesOneWrite() {
+        CartUpdateCoalescer coalescer = new CartUpdateCoalescer(true, 60_000, cartService, transactionManager, meterRegistry);
+
+        for(int i = 0; i < 5; i++)
+            coalescer.submit("a@example.com", 1L, 1);
+        coalescer.submit("a@example.com", 1L, -1);
+        coalescer.submit("a@example.com", 2L, 1);
+
+        assertThat(coalescer.pending("a@example.com")).isEqualTo(Map.of(1L, 4, 2L, 1));
+
+        coalescer.flush("a@example.com");
+
+        verify(cartService).applyQuantityDelta("a@example.com", 1L, 4);
+        verify(cartService).applyQuantityDelta("a@example.com", 2L, 1);
+        verifyNoMoreInteractions(cartService);
+        assertThat(coalescer.pending("a@example.com")).isEmpty();
+        assertThat(meterRegistry.get("cart.coalesce.writes").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cart.coalesce.writes.saved").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("cart.coalesce.ratio").gauge().value()).isEqualTo(3.5);
+        coalescer.close();
+    }
+
+    @Test
+    void clicksThatCancelOutNeverWrite() {
+        CartUpdateCoalescer coalescer = new CartUpdateCoalescer(true, 60_000, cartService, transactionManager, meterRegistry);
+
+        coalescer.submit("a@example.com", 1L, 1);
+        coalescer.submit("a@example.com", 1L, -1);
+        coalescer.flush("a@example.com");
+
+        verifyNoInteractions(cartService);
+        assertThat(meterRegistry.get("cart.coalesce.writes.saved").counter().count()).isEqualTo(2);
+        coalescer.close();
+    }
+
+    @Test
+    void windowFlushesWithoutAReader() {
+        CartUpdateCoalescer coalescer = new CartUpdateCoalescer(true, 20, cartService, transactionManager, meterRegistry);
+
+        coalescer.submit("a@example.com", 1L, 1);
+        coalescer.submit("a@example.com", 1L, 1);
+
+        verify(cartService, timeout(2_000)).applyQuantityDelta("a@example.com", 1L, 2);
+        coalescer.close();
+    }
+
+    @Test
+    void rejectedDeltaIsDroppedAndCounted() {
+        CartUpdateCoalescer coalescer = new CartUpdateCoalescer(true, 60_000, cartService, transactionManager, meterRegistry);
+        when(cartService.applyQuantityDelta(anyString(), anyLong(), anyInt()))
+                .thenThrow(new APIException("Product is not available."));
+
+        coalescer.submit("a@example.com", 1L, 3);
+        coalescer.flush("a@example.com");
+
+        assertThat(coalescer.pending("a@example.com")).isEmpty();
+        assertThat(meterRegistry.get("cart.coalesce.rejected").counter().count()).isEqualTo(1);
+        coalescer.close();
+    }
+}
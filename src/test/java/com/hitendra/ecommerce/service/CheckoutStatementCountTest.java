@@ -0,0 +1,154 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.config.HibernateConfig;
+import com.hitendra.ecommerce.exceptions.InsufficientStockException;
+import com.hitendra.ecommerce.inventory.CartHolds;
+import com.hitendra.ecommerce.inventory.HotSkuStock;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.OrderMapper;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.*;
+import com.hitendra.ecommerce.payload.OrderDTO;
+import com.hitendra.ecommerce.payload.OrderItemDTO;
+import com.hitendra.ecommerce.repository.ProductStockRepository;
+import com.hitendra.ecommerce.support.StatementCountingConfig;
+import com.hitendra.ecommerce.support.StatementCountingDataSource;
+import com.hitendra.ecommerce.utils.AuthUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({OrderServiceImplementation.class, HibernateConfig.class, InventoryService.class, HotSkuStock.class, ProductStockRepository.class,
+        OrderMapper.class, ProductMapper.class, StatementCountingConfig.class})
+class CheckoutStatementCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private AuthUtil authUtil;
+
+    @MockitoBean
+    private CartHolds cartHolds;
+
+    @MockitoBean
+    private CartUpdateCoalescer cartUpdateCoalescer;
+
+    private int buyers;
+
+    @Test
+    void statementCountStaysFlatAsTheCartGrows() {
+        long oneItem = checkoutStatements(1);
+
+        assertThat(checkoutStatements(10)).isEqualTo(oneItem);
+        assertThat(checkoutStatements(30)).isEqualTo(oneItem);
+    }
+
+    @Test
+    void checkoutMovesTheCartIntoTheOrder() {
+        Checkout checkout = createCheckout(3);
+
+        OrderDTO orderDTO = orderService.placeOrder(checkout.addressId(), "card", "stripe", "pg-1", "succeeded", "ok");
+        entityManager.flush();
+
+        assertThat(orderDTO.getOrderPrice()).isEqualTo(300.0);
+        assertThat(orderDTO.getAddressId()).isEqualTo(checkout.addressId());
+        assertThat(orderDTO.getOrderItems()).hasSize(3);
+        for(OrderItemDTO orderItemDTO : orderDTO.getOrderItems()) {
+            assertThat(orderItemDTO.getOrderItemId()).isNotNull();
+            assertThat(orderItemDTO.getQuantity()).isEqualTo(2);
+            assertThat(orderItemDTO.getProduct().getQuantity()).isEqualTo(98);
+        }
+
+        for(Long productId : checkout.productIds())
+            assertThat(jdbcTemplate.queryForObject("select quantity from products where product_id = ?", Integer.class, productId))
+                    .isEqualTo(98);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cart_items where card_id = ?", Long.class, checkout.cartId()))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select total_price from carts where card_id = ?", Double.class, checkout.cartId()))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_item where order_id = ?", Long.class, orderDTO.getOrderId()))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void shortLineRejectsTheCheckout() {
+        Checkout checkout = createCheckout(2);
+        Long shortProductId = checkout.productIds().get(1);
+        jdbcTemplate.update("update products set quantity = 1 where product_id = ?", shortProductId);
+
+        assertThatThrownBy(() -> orderService.placeOrder(checkout.addressId(), "card", "stripe", "pg-short", "failed", "short"))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("Product 1")
+                .extracting(e -> ((InsufficientStockException) e).getProductIds())
+                .isEqualTo(List.of(shortProductId));
+    }
+
+    private long checkoutStatements(int cartSize) {
+        Checkout checkout = createCheckout(cartSize);
+        StatementCountingDataSource counter = (StatementCountingDataSource) dataSource;
+
+        counter.reset();
+        orderService.placeOrder(checkout.addressId(), "card", "stripe", "pg-" + cartSize, "succeeded", "ok");
+        entityManager.flush();
+        // Whether a checkout crosses a 50-id block boundary says nothing about the checkout itself
+        return counter.count() - counter.sequenceCount();
+    }
+
+    private Checkout createCheckout(int cartSize) {
+        buyers++;
+        String email = "buyer" + buyers + "@example.com";
+        User user = entityManager.persist(new User("buyer" + buyers, email, "password"));
+        when(authUtil.loggedInEmail()).thenReturn(email);
+
+        Address address = entityManager.persist(new Address("Baker Street", "Sunrise Towers", "London", "Greater London", "United Kingdom", "NW16XE"));
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalPrice(cartSize * 100.0);
+        entityManager.persist(cart);
+
+        List<Long> productIds = new ArrayList<>();
+        for(int i = 0; i < cartSize; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setQuantity(100);
+            product.setPrice(50);
+            product.setSpecialPrice(50);
+            entityManager.persist(product);
+            productIds.add(product.getProductId());
+
+            entityManager.persist(new CartItem(null, cart, product, 2, 0, 50));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return new Checkout(cart.getCardId(), address.getAddressId(), productIds);
+    }
+
+    private record Checkout(Long cartId, Long addressId, List<Long> productIds) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.inventory.InventoryService;
+import com.hitendra.ecommerce.mapper.ProductMapper;
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductCursorResponse;
+import com.hitendra.ecommerce.payload.ProductDTO;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ProductServiceImplementation.class, ProductMapper.class})
+class ProductCursorPagingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockitoBean
+    private CartService cartService;
+
+    @MockitoBean
+    private FileService fileService;
+
+    @MockitoBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockitoBean
+    private ProductSuggester productSuggester;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    // Every other product has no image and no stock level, and prices tie in pairs
+    @BeforeEach
+    void createProducts() {
+        Category category = entityManager.persist(new Category(null, "Stationery", null));
+        for(int i = 0; i < 9; i++) {
+            Product product = new Product();
+            product.setProductName("Item " + (char) ('a' + (i * 5) % 9));
+            product.setDescription("Description");
+            product.setImage(i % 2 == 0 ? null : "item" + i + ".png");
+            product.setQuantity(i % 2 == 0 ? null : i);
+            product.setPrice(i / 2);
+            product.setSpecialPrice(i / 2);
+            product.setCategory(category);
+            productIds.add(entityManager.persist(product).getProductId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesOverRowsWithNullColumnsWithoutSkippingOrRepeating() {
+        for(String sortBy : List.of("productId", "productName", "price", "description"))
+            for(String sortOrder : List.of("asc", "desc"))
+                assertThat(scrollAll(sortBy, sortOrder))
+                        .as("sorted by %s %s", sortBy, sortOrder)
+                        .containsExactlyInAnyOrderElementsOf(productIds);
+    }
+
+    @Test
+    void nullableColumnsCantBeCursorSortKeys() {
+        assertThatThrownBy(() -> productService.getAllProductsByCursor(null, 2, "quantity", "asc"))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("not quantity");
+        assertThatThrownBy(() -> productService.getAllProductsByCursor(null, 2, "image", "desc"))
+                .isInstanceOf(APIException.class)
+                .hasMessageContaining("not image");
+    }
+
+    private List<Long> scrollAll(String sortBy, String sortOrder) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        ProductCursorResponse page;
+        do {
+            page = productService.getAllProductsByCursor(cursor, 2, sortBy, sortOrder);
+            page.getContent().stream().map(ProductDTO::getProductId).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while(!page.isLastPage() && seen.size() <= productIds.size());
+        return seen;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hitendra.ecommerce.service;
+
+import com.hitendra.ecommerce.config.HibernateConfig;
+import com.hitendra.ecommerce.model.Category;
+import com.hitendra.ecommerce.model.Product;
+import com.hitendra.ecommerce.payload.ProductImportErrorDTO;
+import com.hitendra.ecommerce.payload.ProductImportReport;
+import com.hitendra.ecommerce.repository.CategoryRepository;
+import com.hitendra.ecommerce.repository.ProductRepository;
+import com.hitendra.ecommerce.search.ProductSearchIndex;
+import com.hitendra.ecommerce.search.ProductSuggester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "spring.app.productImport.batchSize=2"})
+@Import({ProductImportService.class, HibernateConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+// Imports run outside any transaction, every batch commits on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockitoBean
+    private ProductSuggester productSuggester;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void createCategory() {
+        Category category = categoryRepository.save(new Category(null, "Books", null));
+        categoryId = category.getCategoryId();
+
+        Product existing = new Product();
+        existing.setProductName("Existing book");
+        existing.setDescription("Already in the catalog");
+        existing.setQuantity(1);
+        existing.setCategory(category);
+        productRepository.save(existing);
+    }
+
+    @AfterEach
+    void deleteProducts() {
+        jdbcTemplate.update("delete from products");
+        jdbcTemplate.update("delete from category");
+    }
+
+    @Test
+    void importsCsvInBatchesAndReportsBadRows() throws IOException {
+        String csv = """
+                productName,description,quantity,price,discount,categoryId
+                First book,"A book, with a comma",10,200,10,%1$d
+                Second book,"Says ""hello""\",5,100,0,%1$d
+                Existing book,Duplicate of a stored name,1,10,0,%1$d
+                Third book,Fine,3,abc,0,%1$d
+                Fourth book,Unknown category,3,50,0,999
+                Fifth book,Last one,7,80,25,%1$d
+                """.formatted(categoryId);
+
+        ProductImportReport report = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.CSV);
+
+        assertThat(report.getRows()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(3L, 4L, 5L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select special_price from products where product_name = 'First book'", Double.class))
+                .isEqualTo(180.0);
+        assertThat(jdbcTemplate.queryForObject(
+                "select description from products where product_name = 'Second book'", String.class))
+                .isEqualTo("Says \"hello\"");
+        verify(productSearchIndex, times(3)).index(any());
+        verify(productSuggester).requestRebuild();
+    }
+
+    @Test
+    void importsNdjsonAndCatchesDuplicatesWithinTheUpload() throws IOException {
+        String ndjson = """
+                {"productName":"Json book","description":"From NDJSON","quantity":4,"price":40,"categoryId":%1$d}
+                {"productName":"Json book","description":"Same name again","quantity":4,"price":40,"categoryId":%1$d}
+                {not json}
+
+                {"productName":"Other book","description":"Also fine","quantity":1,"price":10,"discount":50,"categoryId":%1$d}
+                """.formatted(categoryId);
+
+        ProductImportReport report = productImportService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductImportService.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(2L, 3L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from products where category_id = ?", Long.class, categoryId))
+                .isEqualTo(3);
+        verify(productSearchIndex).index(argThat(product ->
+                product.getProductName().equals("Other book") && product.getDescription().equals("Also fine")));
+    }
+
+    @Test
+    void rowTheDatabaseRejectsOnlyCostsItself() throws IOException {
+        String csv = """
+                productName,description,quantity,price,discount,categoryId
+                Good book,Fine,1,10,0,%1$d
+                Rejected book,Fails a database check,1,10,0,%1$d
+                %2$s,Name too long,1,10,0,%1$d
+                Later book,Fine,1,10,0,%1$d
+                Last book,Fine,1,10,0,%1$d
+                """.formatted(categoryId, "x".repeat(256));
+
+        jdbcTemplate.execute("alter table products add constraint ck_import_test check (product_name <> 'Rejected book')");
+        ProductImportReport report;
+        try {
+            report = productImportService.importProducts(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImportService.CSV);
+        } finally {
+            jdbcTemplate.execute("alter table products drop constraint ck_import_test");
+        }
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDTO::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Insert failed");
+        assertThat(report.getErrors().get(1).getMessage()).contains("at most 255");
+        assertThat(jdbcTemplate.queryForList(
+                "select product_name from products where category_id = ? order by product_name", String.class, categoryId))
+                .containsExactly("Existing book", "Good book", "Last book", "Later book");
+        verify(productSearchIndex, times(3)).index(any());
+        verify(productSearchIndex, never()).index(argThat(product -> product.getProductName().equals("Rejected book")));
+    }
+}
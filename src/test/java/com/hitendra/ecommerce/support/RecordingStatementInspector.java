@@ -0,0 +1,29 @@
+package com.hitendra.ecommerce.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps every SQL string Hibernate sends, register with
+// spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized(statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> drain() {
+        synchronized(statements) {
+            List<String> drained = new ArrayList<>(statements);
+            statements.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hitendra.ecommerce.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+// Import into a slice test to route the test DataSource through StatementCountingDataSource
+@TestConfiguration
+public class StatementCountingConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource))
+                    return new StatementCountingDataSource(dataSource);
+                return bean;
+            }
+        };
+    }
+}
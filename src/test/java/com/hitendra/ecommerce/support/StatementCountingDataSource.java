@@ -0,0 +1,100 @@
+package com.hitendra.ecommerce.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts statement executions (a JDBC batch counts once) for both Hibernate and JdbcTemplate traffic.
+// Sequence fetches are also counted on their own, they depend on where id blocks end rather than on the work
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong sequenceExecutions = new AtomicLong();
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public void reset() {
+        executions.set(0);
+        sequenceExecutions.set(0);
+    }
+
+    public long count() {
+        return executions.get();
+    }
+
+    public long sequenceCount() {
+        return sequenceExecutions.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if(result instanceof Statement statement)
+                        return countingStatement(statement, method.getName().startsWith("prepare") && isSequenceFetch((String) args[0]));
+                    return result;
+                }
+        );
+    }
+
+    private Statement countingStatement(Statement statement, boolean sequenceFetch) {
+        return (Statement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{statementInterface(statement)},
+                (proxy, method, args) -> {
+                    if(method.getName().startsWith("execute")) {
+                        executions.incrementAndGet();
+                        if(sequenceFetch)
+                            sequenceExecutions.incrementAndGet();
+                    }
+                    return invoke(statement, method, args);
+                }
+        );
+    }
+
+    // H2 and PostgreSQL spellings of Hibernate's sequence call
+    private static boolean isSequenceFetch(String sql) {
+        String lowerCase = sql.toLowerCase(Locale.ROOT);
+        return lowerCase.contains("next value for") || lowerCase.contains("nextval(");
+    }
+
+    private static Class<?> statementInterface(Statement statement) {
+        if(statement instanceof CallableStatement)
+            return CallableStatement.class;
+        if(statement instanceof PreparedStatement)
+            return PreparedStatement.class;
+        return Statement.class;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
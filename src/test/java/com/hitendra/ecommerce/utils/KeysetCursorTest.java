@@ -0,0 +1,111 @@
+package com.hitendra.ecommerce.utils;
+
+import com.hitendra.ecommerce.config.AppConstants;
+import com.hitendra.ecommerce.exceptions.APIException;
+import com.hitendra.ecommerce.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void appendsTheIdAsTieBreakerInTheSameDirection() {
+        assertThat(KeysetCursor.sort("price", "desc", AppConstants.CURSOR_SORT_PRODUCTS_BY))
+                .containsExactly(Sort.Order.desc("price"), Sort.Order.desc("productId"));
+        assertThat(KeysetCursor.sort("productId", "asc", AppConstants.CURSOR_SORT_PRODUCTS_BY))
+                .containsExactly(Sort.Order.asc("productId"));
+    }
+
+    @Test
+    void refusesToSeekOnNullableColumns() {
+        assertThatThrownBy(() -> KeysetCursor.sort("quantity", "asc", AppConstants.CURSOR_SORT_PRODUCTS_BY))
+                .isInstanceOf(APIException.class)
+                .hasMessage("Cursor pages can be sorted by productId, productName, description, price, discount, specialPrice, not quantity");
+        assertThatThrownBy(() -> KeysetCursor.sort("image", "asc", AppConstants.CURSOR_SORT_PRODUCTS_BY))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void roundTripsTheLastRowsKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("price", 12.5);
+        keys.put("productId", 42L);
+
+        assertThat(roundTrip(keys, Sort.by("price", "productId"))).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void roundTripsSeparatorsAndNonAsciiText() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("productName", "Salt & pepper = 50% off, café");
+        keys.put("productId", 7L);
+
+        assertThat(roundTrip(keys, Sort.by("productName", "productId"))).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void keepsNullsApartFromTheTextNullAndTheEmptyString() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("image", null);
+        keys.put("productName", "null");
+        keys.put("description", "");
+        keys.put("quantity", null);
+        keys.put("productId", 3L);
+
+        Map<String, Object> decoded = roundTrip(keys, Sort.by("image", "productName", "description", "quantity", "productId"));
+
+        assertThat(decoded).containsExactlyEntriesOf(keys);
+        assertThat(decoded.get("image")).isNull();
+        assertThat(decoded.get("productName")).isEqualTo("null");
+    }
+
+    @Test
+    void firstAndLastPagesNeedNoCursor() {
+        assertThat(KeysetCursor.position(null, Product.class, Sort.by("productId")).isInitial()).isTrue();
+        assertThat(KeysetCursor.position(" ", Product.class, Sort.by("productId")).isInitial()).isTrue();
+        assertThat(KeysetCursor.next(window(Map.of("productId", 1L), false))).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotIssue() {
+        Sort sort = Sort.by("productId");
+
+        assertThatThrownBy(() -> KeysetCursor.position("not base64!", Product.class, sort))
+                .isInstanceOf(APIException.class).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.position(encode("password=x"), Product.class, sort))
+                .isInstanceOf(APIException.class).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.position(encode("productId=abc"), Product.class, sort))
+                .isInstanceOf(APIException.class).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.position(encode("productId=1&productId=2"), Product.class, sort))
+                .isInstanceOf(APIException.class).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.position(encode("price=1.0&productId=2"), Product.class, sort))
+                .isInstanceOf(APIException.class).hasMessage("Cursor doesn't match the requested sort");
+    }
+
+    private static Map<String, Object> roundTrip(Map<String, Object> keys, Sort sort) {
+        String cursor = KeysetCursor.next(window(keys, true));
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        return KeysetCursor.position(cursor, Product.class, sort).getKeys();
+    }
+
+    private static Window<Product> window(Map<String, Object> lastKeys, boolean hasNext) {
+        KeysetScrollPosition position = ScrollPosition.forward(lastKeys);
+        return Window.from(List.of(new Product()), index -> position, hasNext);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
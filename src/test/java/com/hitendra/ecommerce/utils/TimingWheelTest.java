@@ -0,0 +1,63 @@
+package com.hitendra.ecommerce.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private final TimingWheel wheel = new TimingWheel("test-wheel", 5, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void close() {
+        wheel.close();
+    }
+
+    @Test
+    void expiresInDeadlineOrderAcrossSeveralRotations() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // 8 buckets of 5 ms, so 120 ms needs three laps of the wheel
+        wheel.schedule(() -> { fired.add(3); done.countDown(); }, 120, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(1); done.countDown(); }, 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(2); done.countDown(); }, 60, TimeUnit.MILLISECONDS);
+
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void cancelledTimeoutsNeverRun() throws InterruptedException {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+
+        TimingWheel.Timeout timeout = wheel.schedule(cancelledRan::countDown, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(laterRan::countDown, 60, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(laterRan.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void neverFiresBeforeTheDeadline() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long scheduledAt = System.nanoTime();
+        long[] firedAfter = new long[1];
+
+        wheel.schedule(() -> {
+            firedAfter[0] = System.nanoTime() - scheduledAt;
+            done.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(firedAfter[0])).isGreaterThanOrEqualTo(50);
+    }
+}